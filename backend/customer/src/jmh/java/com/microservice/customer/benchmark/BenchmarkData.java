@@ -0,0 +1,113 @@
+package com.microservice.customer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.customer.cache.CacheInvalidationPublisher;
+import com.microservice.customer.cache.CompactRedisSerializer;
+import com.microservice.customer.cache.TwoTierCache;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.exception.NoInstanceException;
+import com.microservice.customer.helper.uuid.UuidV7;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+
+/**
+ * sample customer's and in-memory building blocks shared by benchmarks,
+ * values have the size of a typical customer
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * @param index distinguishes name and email of customer
+     * @return {@link CustomerDTO} customer payload without id
+     */
+    static CustomerDTO customerDTO(final int index) {
+        return CustomerDTO.builder()
+                .firstName("Firstname" + index)
+                .lastName("Lastname" + index)
+                .email("customer" + index + "@example.com")
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("+1 555 010 " + index)
+                .itinOrSsn("123-45-6789")
+                .build();
+    }
+
+    /**
+     * @param index distinguishes name and email of customer
+     * @return {@link Customer} persisted customer with id and version
+     */
+    static Customer customer(final int index) {
+        return Customer.builder()
+                .id(UuidV7.generate())
+                .firstName("Firstname" + index)
+                .lastName("Lastname" + index)
+                .email("customer" + index + "@example.com")
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("+1 555 010 " + index)
+                .itinOrSsn("123-45-6789")
+                .version(0L)
+                .build();
+    }
+
+    /**
+     * @return {@link ObjectMapper} object mapper configured as by spring
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * two tier cache of production configuration whose redis tier is
+     * kept in memory and whose invalidations are not published, so only
+     * serialization and cache logic is measured
+     *
+     * @param name          {@link String} cache name
+     * @param localCache    {@link Cache} in-process tier
+     * @param meterRegistry {@link MeterRegistry} registry of redis tier timers
+     * @return {@link TwoTierCache} two tier cache
+     */
+    static TwoTierCache twoTierCache(final String name,
+                                     final Cache<String, ValueWrapper> localCache,
+                                     final MeterRegistry meterRegistry) {
+        final RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer(), 512)));
+        final RedisCacheManager redisCacheManager = RedisCacheManager
+                .builder(new InMemoryRedisCacheWriter())
+                .cacheDefaults(configuration)
+                .build();
+        final CacheInvalidationPublisher invalidationPublisher = new CacheInvalidationPublisher(null) {
+            @Override
+            public void publish(final String cacheName, final String key) {
+            }
+        };
+        return new TwoTierCache(localCache, (RedisCache) redisCacheManager.getCache(name),
+                invalidationPublisher, null, CacheStatisticsCollector.none(), 0, Duration.ZERO, meterRegistry);
+    }
+
+    /**
+     * @return {@link Cache} in-process tier sized as in production
+     */
+    static Cache<String, ValueWrapper> localCache() {
+        return Caffeine.newBuilder().maximumSize(10_000).build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.microservice.customer.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * statements of add customer against mysql holding a given number of
+ * customer's, before the email index (migration 1.1) and after it
+ * (migration 2). Looking up the id of an email is what add does to find
+ * an existing customer, answered by the email index alone once it exists,
+ * the full row lookup is kept for comparison. Insert is what add does for
+ * a new customer and pays for
+ * keeping the unique index. Inserts are rolled back so the table keeps
+ * its size. Needs docker, mysql is started in a container
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerAddBenchmark {
+
+    private static final int SEED_BATCH = 1_000;
+
+    @Param({"10000", "100000"})
+    private int customers;
+
+    @Param({"1.1", "2"})
+    private String migration;
+
+    private MySQLContainer<?> mysql;
+    private Connection connection;
+    private PreparedStatement findByEmail;
+    private PreparedStatement findIdByEmail;
+    private PreparedStatement insert;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:8.0").withUrlParam("rewriteBatchedStatements", "true");
+        mysql.start();
+        Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .locations("classpath:db/migration")
+                .target(migration)
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        insert = connection.prepareStatement("""
+                INSERT INTO `customer` (`id`, `first_name`, `last_name`, `email`, `date_of_birth`, `phone_number`,
+                `itin_or_ssn`) VALUES (?, 'first', 'last', ?, '1990-01-01', '5550100', '999')""");
+        for (int index = 0; index < customers; index++) {
+            bind(UUID.randomUUID().toString(), email(index));
+            insert.addBatch();
+            if ((index + 1) % SEED_BATCH == 0)
+                insert.executeBatch();
+        }
+        insert.executeBatch();
+        connection.setAutoCommit(false);
+        findByEmail = connection.prepareStatement("SELECT * FROM `customer` c WHERE c.email = ?");
+        findIdByEmail = connection.prepareStatement("SELECT c.id FROM `customer` c WHERE c.email = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public boolean findByEmail() throws SQLException {
+        findByEmail.setString(1, email(next++ % customers));
+        try (ResultSet resultSet = findByEmail.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    @Benchmark
+    public boolean findIdByEmail() throws SQLException {
+        findIdByEmail.setString(1, email(next++ % customers));
+        try (ResultSet resultSet = findIdByEmail.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        bind(UUID.randomUUID().toString(), "new-" + next++ + "@example.com");
+        final int inserted = insert.executeUpdate();
+        connection.rollback();
+        return inserted;
+    }
+
+    private void bind(final String id, final String email) throws SQLException {
+        insert.setString(1, id);
+        insert.setString(2, email);
+    }
+
+    private static String email(final int index) {
+        return "customer-" + index + "@example.com";
+    }
+}
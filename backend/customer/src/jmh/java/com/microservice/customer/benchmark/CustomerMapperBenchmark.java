@@ -0,0 +1,73 @@
+package com.microservice.customer.benchmark;
+
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.mapper.CustomerMapper;
+import com.microservice.customer.mapper.CustomerMapperImpl;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mapping between customer entity and payload, generated mapper is
+ * measured alone and behind its timing decorator
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    private CustomerMapper mapper;
+    private CustomerMapper timedMapper;
+    private Customer customer;
+    private CustomerDTO customerDTO;
+
+    @Setup
+    public void setUp() {
+        mapper = new CustomerMapperImpl_();
+        final CustomerMapperImpl decorator = new CustomerMapperImpl();
+        ReflectionTestUtils.setField(decorator, "delegate", mapper);
+        decorator.setMeterRegistry(new SimpleMeterRegistry());
+        timedMapper = decorator;
+        customer = BenchmarkData.customer(1);
+        customerDTO = BenchmarkData.customerDTO(1);
+    }
+
+    @Benchmark
+    public CustomerDTO toDTO() {
+        return mapper.toDTO(customer);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return mapper.toEntity(customerDTO);
+    }
+
+    @Benchmark
+    public CustomerDTO timedToDTO() {
+        return timedMapper.toDTO(customer);
+    }
+
+    @Benchmark
+    public Customer timedToEntity() {
+        return timedMapper.toEntity(customerDTO);
+    }
+}
@@ -0,0 +1,137 @@
+package com.microservice.customer.benchmark;
+
+import com.microservice.customer.bloom.EmailBloomFilter;
+import com.microservice.customer.cache.CacheGeneration;
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import com.microservice.customer.repository.CustomerRepository;
+import com.microservice.customer.service.impl.CustomerServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_MISSING;
+
+/**
+ * customer service operations against an in-memory repository, caches
+ * with in-memory redis tier, email filter disabled and transactions
+ * that do nothing. Service is called
+ * directly so cache annotations are not applied, every call takes the
+ * path of a cache miss. Created customer's are removed again within the
+ * same operation so the store keeps its size
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    private CustomerRepository customerRepository;
+    private CustomerServiceImpl customerService;
+    private List<CustomerDTO> customers;
+    private int next;
+    private int created;
+
+    @Setup
+    public void setUp() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        customerRepository = new InMemoryCustomerRepository().repository();
+        final EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> null);
+        final SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                BenchmarkData.twoTierCache(CACHE_CUSTOMER, BenchmarkData.localCache(), meterRegistry),
+                BenchmarkData.twoTierCache(CACHE_CUSTOMER_MISSING, BenchmarkData.localCache(), meterRegistry)));
+        cacheManager.afterPropertiesSet();
+        final CacheGeneration customerPageGeneration = new CacheGeneration(null, "benchmark") {
+            @Override
+            public Long current() {
+                return null;
+            }
+
+            @Override
+            public void bump() {
+            }
+        };
+        customerService = new CustomerServiceImpl(customerRepository, new CustomerMapperImpl_(), entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), cacheManager,
+                new EmailBloomFilter(customerRepository, null, null, null, null, meterRegistry,
+                        false, CUSTOMERS, 0.01),
+                customerPageGeneration,
+                new TransactionTemplate((PlatformTransactionManager) Proxy.newProxyInstance(
+                        PlatformTransactionManager.class.getClassLoader(), new Class<?>[]{PlatformTransactionManager.class},
+                        (proxy, method, args) -> null)));
+        ReflectionTestUtils.setField(customerService, "batchMaxSize", 1000);
+        ReflectionTestUtils.setField(customerService, "lookupMaxSize", 1000);
+        ReflectionTestUtils.setField(customerService, "jdbcBatchSize", BATCH_SIZE);
+        final CustomerMapperImpl_ mapper = new CustomerMapperImpl_();
+        customers = IntStream.range(0, CUSTOMERS)
+                .mapToObj(index -> mapper.toDTO(customerRepository.saveAndFlush(BenchmarkData.customer(index))))
+                .toList();
+    }
+
+    @Benchmark
+    public CustomerDTO get() {
+        return customerService.get(nextCustomer().getId());
+    }
+
+    @Benchmark
+    public CustomerDTO update() {
+        final CustomerDTO customer = nextCustomer();
+        return customerService.update(customer.getId(), customer, null);
+    }
+
+    @Benchmark
+    public CustomerDTO addAndDelete() {
+        final CustomerDTO customer = customerService.add(BenchmarkData.customerDTO(CUSTOMERS + created++), null);
+        customerService.delete(customer.getId());
+        return customer;
+    }
+
+    @Benchmark
+    public List<BatchResult> addAll() {
+        final List<BatchResult> results = customerService.addAll(IntStream.range(0, BATCH_SIZE)
+                .mapToObj(index -> BenchmarkData.customerDTO(CUSTOMERS + created++))
+                .toList());
+        results.forEach(result -> customerRepository.removeById(UUID.fromString(result.content().getId())));
+        return results;
+    }
+
+    private CustomerDTO nextCustomer() {
+        final CustomerDTO customer = customers.get(next);
+        next = (next + 1) % CUSTOMERS;
+        return customer;
+    }
+}
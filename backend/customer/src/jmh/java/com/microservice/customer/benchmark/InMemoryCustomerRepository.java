@@ -0,0 +1,124 @@
+package com.microservice.customer.benchmark;
+
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.helper.uuid.UuidV7;
+import com.microservice.customer.repository.CustomerRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * customer repository kept in memory, so service benchmarks measure
+ * business logic without database. Unique email index is honoured the
+ * way database does, only operations used by benchmarked service
+ * operations are supported
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class InMemoryCustomerRepository implements InvocationHandler {
+
+    private final Map<UUID, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<String, UUID> emails = new ConcurrentHashMap<>();
+
+    /**
+     * @return {@link CustomerRepository} repository backed by this store
+     */
+    CustomerRepository repository() {
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, this);
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        return switch (method.getName()) {
+            case "save", "saveAndFlush" -> save((Customer) args[0]);
+            case "saveAll" -> saveAll((Iterable<?>) args[0]);
+            case "flush" -> null;
+            case "findById" -> Optional.ofNullable(customers.get((UUID) args[0]));
+            case "existsById" -> customers.containsKey((UUID) args[0]);
+            case "findVersionById" -> Optional.ofNullable(customers.get((UUID) args[0])).map(Customer::getVersion);
+            case "findAllById" -> findAllById((Iterable<?>) args[0]);
+            case "findIdByEmail" -> Optional.ofNullable(emails.get((String) args[0]));
+            case "findAllByEmailIn" -> findAllByEmailIn((Collection<?>) args[0]);
+            case "updateById" -> updateById((Customer) args[0], (Long) args[1]);
+            case "removeById" -> removeById((UUID) args[0]);
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryCustomerRepository";
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private Customer save(final Customer customer) {
+        if (customer.getId() == null)
+            customer.setId(UuidV7.generate());
+        if (customer.getVersion() == null)
+            customer.setVersion(0L);
+        if (emails.putIfAbsent(customer.getEmail(), customer.getId()) != null)
+            throw new DataIntegrityViolationException("Duplicate entry for key 'customer.email'");
+        customers.put(customer.getId(), customer);
+        return customer;
+    }
+
+    private List<Customer> saveAll(final Iterable<?> entities) {
+        final List<Customer> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save((Customer) entity)));
+        return saved;
+    }
+
+    private List<Customer> findAllById(final Iterable<?> ids) {
+        final List<Customer> found = new ArrayList<>();
+        ids.forEach(id -> Optional.ofNullable(customers.get((UUID) id)).ifPresent(found::add));
+        return found;
+    }
+
+    private List<Customer> findAllByEmailIn(final Collection<?> values) {
+        return values.stream()
+                .map(emails::get)
+                .filter(Objects::nonNull)
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private int updateById(final Customer customer, final Long version) {
+        final Customer existing = customers.get(customer.getId());
+        if (existing == null || (version != null && !version.equals(existing.getVersion())))
+            return 0;
+        if (!existing.getEmail().equals(customer.getEmail())) {
+            if (emails.putIfAbsent(customer.getEmail(), customer.getId()) != null)
+                throw new DataIntegrityViolationException("Duplicate entry for key 'customer.email'");
+            emails.remove(existing.getEmail());
+        }
+        customers.put(customer.getId(), Customer.builder()
+                .id(customer.getId())
+                .firstName(customer.getFirstName())
+                .lastName(customer.getLastName())
+                .email(customer.getEmail())
+                .dateOfBirth(customer.getDateOfBirth())
+                .phoneNumber(customer.getPhoneNumber())
+                .itinOrSsn(customer.getItinOrSsn())
+                .version(existing.getVersion() + 1)
+                .build());
+        return 1;
+    }
+
+    private int removeById(final UUID id) {
+        final Customer removed = customers.remove(id);
+        if (removed == null)
+            return 0;
+        emails.remove(removed.getEmail());
+        return 1;
+    }
+}
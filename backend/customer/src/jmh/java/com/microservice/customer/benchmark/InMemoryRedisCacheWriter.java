@@ -0,0 +1,83 @@
+package com.microservice.customer.benchmark;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.NonNull;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * redis cache writer backed by a map, keeps serialized values so reads
+ * and writes pay the serialization cost of redis without a round trip.
+ * Time to live is ignored
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class InMemoryRedisCacheWriter implements RedisCacheWriter {
+
+    private final Map<ByteBuffer, byte[]> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(@NonNull final String name, @NonNull final byte[] key) {
+        return entries.get(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    @NonNull
+    public CompletableFuture<byte[]> retrieve(@NonNull final String name, @NonNull final byte[] key,
+                                              final Duration ttl) {
+        return CompletableFuture.completedFuture(get(name, key));
+    }
+
+    @Override
+    public void put(@NonNull final String name, @NonNull final byte[] key, @NonNull final byte[] value,
+                    final Duration ttl) {
+        entries.put(ByteBuffer.wrap(key), value);
+    }
+
+    @Override
+    @NonNull
+    public CompletableFuture<Void> store(@NonNull final String name, @NonNull final byte[] key,
+                                         @NonNull final byte[] value, final Duration ttl) {
+        put(name, key, value, ttl);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public byte[] putIfAbsent(@NonNull final String name, @NonNull final byte[] key, @NonNull final byte[] value,
+                              final Duration ttl) {
+        return entries.putIfAbsent(ByteBuffer.wrap(key), value);
+    }
+
+    @Override
+    public void remove(@NonNull final String name, @NonNull final byte[] key) {
+        entries.remove(ByteBuffer.wrap(key));
+    }
+
+    @Override
+    public void clean(@NonNull final String name, @NonNull final byte[] pattern) {
+        entries.clear();
+    }
+
+    @Override
+    public void clearStatistics(@NonNull final String name) {
+    }
+
+    @Override
+    @NonNull
+    public RedisCacheWriter withStatisticsCollector(@NonNull final CacheStatisticsCollector cacheStatisticsCollector) {
+        return this;
+    }
+
+    @Override
+    @NonNull
+    public CacheStatistics getCacheStatistics(@NonNull final String cacheName) {
+        return CacheStatisticsCollector.none().getCacheStatistics(cacheName);
+    }
+}
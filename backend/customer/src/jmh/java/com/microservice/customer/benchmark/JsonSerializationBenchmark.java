@@ -0,0 +1,94 @@
+package com.microservice.customer.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.Response;
+import com.microservice.customer.dto.ResponsePager;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * json bodies of customer endpoints, responses are written as by
+ * controllers and request payload is read as by request body binding
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectReader customerReader;
+    private Response<CustomerDTO> response;
+    private byte[] customerJson;
+
+    /**
+     * page of customer's as returned by customer listing
+     */
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"20", "100"})
+        private int pageSize;
+
+        private ResponsePager<CustomerDTO> pager;
+
+        @Setup
+        public void setUp() {
+            final CustomerMapperImpl_ mapper = new CustomerMapperImpl_();
+            final List<CustomerDTO> content = IntStream.range(0, pageSize)
+                    .mapToObj(index -> mapper.toDTO(BenchmarkData.customer(index)))
+                    .toList();
+            pager = new ResponsePager<>(content, 0, 10_000L, 10_000 / pageSize, false, true, null);
+        }
+    }
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final ObjectMapper objectMapper = BenchmarkData.objectMapper();
+        writer = objectMapper.writer();
+        customerReader = objectMapper.readerFor(CustomerDTO.class);
+        response = new Response<>(new CustomerMapperImpl_().toDTO(BenchmarkData.customer(1)), OK.value());
+        customerJson = writer.writeValueAsBytes(BenchmarkData.customerDTO(1));
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writePage(final Page page) throws JsonProcessingException {
+        return writer.writeValueAsBytes(page.pager);
+    }
+
+    @Benchmark
+    public CustomerDTO readCustomer() throws IOException {
+        return customerReader.readValue(customerJson);
+    }
+}
@@ -0,0 +1,90 @@
+package com.microservice.customer.benchmark;
+
+import com.microservice.customer.cache.CompactRedisSerializer;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * serializers of cached customer values. Json with type information is
+ * what redis cache uses by default, typed json drops type information
+ * and compact is the binary form stored by customer caches, with and
+ * without deflating. Encoded size is reported next to the timings
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"generic-json", "typed-json", "compact", "compact-deflated"})
+    private String serializer;
+
+    private RedisSerializer<?> redisSerializer;
+    private CustomerDTO customer;
+    private byte[] encoded;
+
+    /**
+     * size of encoded customer, reported once per iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        redisSerializer = switch (serializer) {
+            case "generic-json" -> json;
+            case "typed-json" -> new Jackson2JsonRedisSerializer<>(CustomerDTO.class);
+            case "compact" -> new CompactRedisSerializer(json, 0);
+            case "compact-deflated" -> new CompactRedisSerializer(json, 1);
+            default -> throw new IllegalArgumentException(serializer);
+        };
+        customer = new CustomerMapperImpl_().toDTO(BenchmarkData.customer(1));
+        encoded = ((RedisSerializer<Object>) redisSerializer).serialize(customer);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(final EncodedSize size) {
+        final byte[] bytes = ((RedisSerializer<Object>) redisSerializer).serialize(customer);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(encoded);
+    }
+}
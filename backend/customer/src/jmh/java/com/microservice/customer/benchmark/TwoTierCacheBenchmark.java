@@ -0,0 +1,68 @@
+package com.microservice.customer.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.microservice.customer.cache.TwoTierCache;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache.ValueWrapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+
+/**
+ * read path of customer cache. A local hit is served by the in-process
+ * tier, a remote hit reads and decodes the stored value of redis tier,
+ * which is kept in memory, and a miss falls through both tiers
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoTierCacheBenchmark {
+
+    private TwoTierCache cache;
+    private Cache<String, ValueWrapper> localCache;
+    private String key;
+
+    @Setup
+    public void setUp() {
+        localCache = BenchmarkData.localCache();
+        cache = BenchmarkData.twoTierCache(CACHE_CUSTOMER, localCache, new SimpleMeterRegistry());
+        final CustomerDTO customer = new CustomerMapperImpl_().toDTO(BenchmarkData.customer(1));
+        key = customer.getId();
+        cache.put(key, customer);
+    }
+
+    @Benchmark
+    public ValueWrapper localHit() {
+        return cache.get(key);
+    }
+
+    @Benchmark
+    public ValueWrapper remoteHit() {
+        localCache.invalidate(key);
+        return cache.get(key);
+    }
+
+    @Benchmark
+    public ValueWrapper miss() {
+        return cache.get("missing");
+    }
+}
@@ -0,0 +1,134 @@
+package com.microservice.customer.benchmark;
+
+import com.microservice.customer.concurrency.ConnectionLimitingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * burst of concurrent requests served by platform threads, bounded like
+ * tomcat by 200 threads, or by a virtual thread per request. Requests are
+ * answered from cache or borrow a connection through the connection
+ * limiter from a pool of 10, as primary pool of prod profile. Redis and
+ * database round trips are simulated by parking. Benchmark jvm sees a
+ * single cpu, as close as jmh gets to the 0.5 cpu pods. Score is the time
+ * to serve the whole burst. Virtual threads need java 21
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:ActiveProcessorCount=1")
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final long REDIS_ROUND_TRIP = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long QUERY_TIME = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "10000"})
+    private int requests;
+
+    /**
+     * share of requests answered from cache
+     */
+    @Param({"0.0", "0.9"})
+    private double cacheHitRatio;
+
+    private ExecutorService executor;
+    private DataSource dataSource;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        executor = "virtual".equals(threads)
+                ? (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null)
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        dataSource = new ConnectionLimitingDataSource(pool(), POOL_SIZE, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        final int cacheHits = (int) (requests * cacheHitRatio);
+        final List<Callable<Boolean>> burst = new ArrayList<>(requests);
+        for (int index = 0; index < requests; index++)
+            burst.add(index < cacheHits ? this::cacheHit : this::query);
+        int served = 0;
+        for (final Future<Boolean> request : executor.invokeAll(burst))
+            served += request.get() ? 1 : 0;
+        return served;
+    }
+
+    private boolean cacheHit() {
+        LockSupport.parkNanos(REDIS_ROUND_TRIP);
+        return true;
+    }
+
+    private boolean query() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            LockSupport.parkNanos(QUERY_TIME);
+            return connection != null;
+        }
+    }
+
+    /**
+     * @return {@link DataSource} pool of connections that do nothing, a
+     * borrower waits for a free one
+     */
+    private static DataSource pool() {
+        final Semaphore connections = new Semaphore(POOL_SIZE, true);
+        final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()))
+                        connections.release();
+                    return null;
+                });
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (!"getConnection".equals(method.getName()))
+                        throw new UnsupportedOperationException(method.getName());
+                    connections.acquire();
+                    return connection;
+                });
+    }
+}
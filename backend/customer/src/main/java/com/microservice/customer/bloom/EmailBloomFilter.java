@@ -0,0 +1,277 @@
+package com.microservice.customer.bloom;
+
+import com.microservice.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.microservice.customer.utils.Constants.EMAIL_FILTER_CHANNEL;
+import static com.microservice.customer.utils.Constants.EMAIL_FILTER_DELIMITER;
+
+/**
+ * bloom filter of every customer email, answers whether an email is
+ * definitely not taken so bulk create leaves it out of its existence
+ * query. Single create inserts first and relies on the unique email
+ * index, it only adds the email to the filter. Filter is
+ * built in background after startup with a streaming scan of customer
+ * table and rebuilt every rebuild interval, until it is ready every email
+ * is reported as possibly taken. Emails added by any pod are published
+ * over redis pub/sub and applied by every pod. Emails of deleted
+ * customer's stay in the filter, they only cost an existence query until
+ * the next rebuild. An email whose message was lost is reported as not
+ * taken until the next rebuild, unique email index still rejects it
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EmailBloomFilter implements MessageListener {
+
+    private static final Pattern DELIMITER = Pattern.compile(Pattern.quote(EMAIL_FILTER_DELIMITER));
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final AsyncTaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Counter absentCounter;
+    private final Counter presentCounter;
+    private final Counter falsePositiveCounter;
+    private final Timer rebuildTimer;
+    private volatile ScalableBloomFilter filter;
+    /**
+     * filter being rebuilt, emails added during rebuild are applied
+     * to it as well so none is lost
+     */
+    private volatile ScalableBloomFilter building;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param customerRepository       {@link CustomerRepository} customer repository
+     * @param transactionManager       {@link PlatformTransactionManager} transaction manager of streaming scan
+     * @param redisTemplate            {@link StringRedisTemplate} redis template
+     * @param listenerContainer        {@link RedisMessageListenerContainer} pub/sub listener container
+     * @param taskExecutor             {@link AsyncTaskExecutor} executor of background rebuild
+     * @param meterRegistry            {@link MeterRegistry} meter registry
+     * @param enabled                  when false every email is reported as possibly taken
+     * @param expectedInsertions       capacity of first filter stage
+     * @param falsePositiveProbability upper bound of false positive probability
+     */
+    public EmailBloomFilter(final CustomerRepository customerRepository,
+                            final PlatformTransactionManager transactionManager,
+                            final StringRedisTemplate redisTemplate,
+                            final RedisMessageListenerContainer listenerContainer,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                            final AsyncTaskExecutor taskExecutor,
+                            final MeterRegistry meterRegistry,
+                            @Value("${customer.email-filter.enabled:true}") final boolean enabled,
+                            @Value("${customer.email-filter.expected-insertions:1000000}") final long expectedInsertions,
+                            @Value("${customer.email-filter.false-positive-probability:0.01}")
+                            final double falsePositiveProbability) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.redisTemplate = redisTemplate;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.absentCounter = Counter.builder("customer.email.filter.checks")
+                .description("Emails checked against email filter")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.presentCounter = Counter.builder("customer.email.filter.checks")
+                .description("Emails checked against email filter")
+                .tag("result", "present")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("customer.email.filter.false.positives")
+                .description("Emails reported as possibly taken that were not found")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("customer.email.filter.rebuild")
+                .description("Time taken to build email filter from customer table")
+                .register(meterRegistry);
+        Gauge.builder("customer.email.filter.expected.fpp", this,
+                        emailFilter -> emailFilter.filter != null
+                                ? emailFilter.filter.expectedFalsePositiveProbability()
+                                : Double.NaN)
+                .description("Estimated false positive probability of email filter")
+                .register(meterRegistry);
+        Gauge.builder("customer.email.filter.size", this,
+                        emailFilter -> emailFilter.filter != null
+                                ? emailFilter.filter.approximateElementCount()
+                                : Double.NaN)
+                .description("Approximate number of emails in email filter")
+                .register(meterRegistry);
+        Gauge.builder("customer.email.filter.memory", this,
+                        emailFilter -> emailFilter.filter != null
+                                ? emailFilter.filter.sizeInBytes()
+                                : Double.NaN)
+                .description("Memory held by email filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (enabled)
+            listenerContainer.addMessageListener(this, new ChannelTopic(EMAIL_FILTER_CHANNEL));
+    }
+
+    /**
+     * build filter once application is ready, startup is not delayed
+     * by the table scan
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            taskExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * rebuild filter periodically so emails of deleted customer's are
+     * dropped and emails whose pub/sub message was lost are picked up
+     */
+    @Scheduled(initialDelayString = "${customer.email-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${customer.email-filter.rebuild-interval:PT1H}")
+    public void onRebuildInterval() {
+        if (enabled)
+            rebuild();
+    }
+
+    /**
+     * build a new filter with a streaming scan of customer table, scan is
+     * read only so it is served by a replica instead of loading primary.
+     * Emails added while it runs are applied to the new filter too, one
+     * committed just before it started that the replica lags behind is
+     * missed until next rebuild and bulk create falls back on the unique
+     * email index for it. Current filter keeps answering until new one is
+     * complete
+     */
+    public void rebuild() {
+        final ScalableBloomFilter rebuilt = new ScalableBloomFilter(expectedInsertions, falsePositiveProbability);
+        building = rebuilt;
+        log.info("Email filter rebuild started");
+        try {
+            rebuildTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = customerRepository.streamAllEmails()) {
+                    emails.forEach(email -> rebuilt.put(emailKey(email)));
+                }
+            }));
+            filter = rebuilt;
+            log.info("Email filter rebuild completed, emails: {}, expected false positive probability: {}",
+                    rebuilt.approximateElementCount(), rebuilt.expectedFalsePositiveProbability());
+        } catch (final RuntimeException e) {
+            log.error("Email filter rebuild failed: {}", e.getMessage());
+        } finally {
+            if (building == rebuilt)
+                building = null;
+        }
+    }
+
+    /**
+     * @param email {@link String} customer email
+     * @return false when no customer has the email, true when one might have it
+     */
+    public boolean mightContain(final String email) {
+        final ScalableBloomFilter current = filter;
+        if (!enabled || current == null)
+            return true;
+        final boolean present = current.mightContain(emailKey(email));
+        (present ? presentCounter : absentCounter).increment();
+        return present;
+    }
+
+    /**
+     * record emails reported as possibly taken but not found, ignored
+     * while filter is not built as every email is reported as possibly
+     * taken then
+     *
+     * @param count number of false positives
+     */
+    public void recordFalsePositives(final int count) {
+        if (count > 0 && enabled && filter != null)
+            falsePositiveCounter.increment(count);
+    }
+
+    /**
+     * add emails in this pod and publish them to other pods. Failure to
+     * publish is logged only, other pods pick the emails up on next rebuild
+     *
+     * @param emails {@link Collection} emails of created or updated customer's
+     */
+    public void putAll(final Collection<String> emails) {
+        if (!enabled || emails.isEmpty())
+            return;
+        emails.forEach(this::put);
+        try {
+            redisTemplate.convertAndSend(EMAIL_FILTER_CHANNEL, String.join(EMAIL_FILTER_DELIMITER, emails));
+        } catch (final RuntimeException e) {
+            log.warn("Could not publish emails, size: {}, error: {}", emails.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * apply emails added by any pod, messages of this pod are applied
+     * again which is harmless
+     *
+     * @param message {@link Message} redis message
+     * @param pattern channel pattern
+     */
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        DELIMITER.splitAsStream(new String(message.getBody(), StandardCharsets.UTF_8))
+                .forEach(this::put);
+    }
+
+    /**
+     * filter being rebuilt is read before current one, rebuild publishes
+     * new filter before it clears the one being built so an email is
+     * never applied to neither of them
+     *
+     * @param email {@link String} customer email
+     */
+    private void put(final String email) {
+        final String key = emailKey(email);
+        final ScalableBloomFilter rebuilt = building;
+        final ScalableBloomFilter current = filter;
+        if (current != null)
+            current.put(key);
+        if (rebuilt != null && rebuilt != current)
+            rebuilt.put(key);
+    }
+
+    /**
+     * filter key of email, matches case-insensitive collation of database
+     *
+     * @param email {@link String} customer email
+     * @return {@link String} normalized email
+     */
+    private String emailKey(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
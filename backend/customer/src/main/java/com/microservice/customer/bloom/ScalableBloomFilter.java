@@ -0,0 +1,168 @@
+package com.microservice.customer.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * scalable bloom filter, a chain of fixed size bloom filters where a new
+ * stage with double capacity and half false positive probability is added
+ * once the last stage is full. Overall false positive probability stays
+ * bounded however many values are added. Safe for concurrent use
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param expectedInsertions       capacity of first stage
+     * @param falsePositiveProbability upper bound of overall false positive probability
+     */
+    public ScalableBloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+            throw new IllegalArgumentException("expected insertions must be positive and probability between 0 and 1");
+        stages.add(new Stage(expectedInsertions, falsePositiveProbability * (1 - TIGHTENING_RATIO)));
+    }
+
+    /**
+     * @param value {@link String} value to add
+     */
+    public void put(final String value) {
+        final long hash = hash(value);
+        Stage stage = stages.get(stages.size() - 1);
+        if (stage.isFull()) {
+            synchronized (stages) {
+                stage = stages.get(stages.size() - 1);
+                if (stage.isFull()) {
+                    stage = new Stage(stage.capacity * GROWTH_FACTOR, stage.falsePositiveProbability * TIGHTENING_RATIO);
+                    stages.add(stage);
+                }
+            }
+        }
+        stage.put(hash);
+    }
+
+    /**
+     * @param value {@link String} value to check
+     * @return false when value was definitely never added, true when it might have been
+     */
+    public boolean mightContain(final String value) {
+        final long hash = hash(value);
+        for (final Stage stage : stages) {
+            if (stage.mightContain(hash))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return probability that a value never added is reported as contained,
+     * estimated from current fill of every stage
+     */
+    public double expectedFalsePositiveProbability() {
+        double absent = 1;
+        for (final Stage stage : stages)
+            absent *= 1 - stage.expectedFalsePositiveProbability();
+        return 1 - absent;
+    }
+
+    /**
+     * @return approximate number of distinct values added
+     */
+    public long approximateElementCount() {
+        return stages.stream().mapToLong(stage -> stage.count.get()).sum();
+    }
+
+    /**
+     * @return memory held by bit arrays in bytes
+     */
+    public long sizeInBytes() {
+        return stages.stream().mapToLong(stage -> stage.bits.length() * (long) Long.BYTES).sum();
+    }
+
+    /**
+     * 64 bit FNV-1a of utf-8 bytes finished with splitmix64 mixing
+     *
+     * @param value {@link String} value
+     * @return hash of value
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * fixed size bloom filter, bit positions are derived from a single
+     * hash with double hashing
+     */
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveProbability;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(final long capacity, final double falsePositiveProbability) {
+            this.capacity = capacity;
+            this.falsePositiveProbability = falsePositiveProbability;
+            final long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability)
+                    / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + Long.SIZE - 1) / Long.SIZE));
+            this.bitCount = (long) bits.length() * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        private void put(final long hash) {
+            final long hash2 = mix(hash) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                final long index = Math.floorMod(hash + i * hash2, bitCount);
+                final long mask = 1L << index;
+                final long previous = bits.getAndAccumulate((int) (index >>> 6), mask, (word, bit) -> word | bit);
+                changed |= (previous & mask) == 0;
+            }
+            if (changed)
+                count.incrementAndGet();
+        }
+
+        private boolean mightContain(final long hash) {
+            final long hash2 = mix(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                final long index = Math.floorMod(hash + i * hash2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveProbability() {
+            return Math.pow(1 - Math.exp(-hashCount * (double) count.get() / bitCount), hashCount);
+        }
+    }
+}
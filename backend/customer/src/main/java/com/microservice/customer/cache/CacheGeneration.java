@@ -0,0 +1,73 @@
+package com.microservice.customer.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * generation counter kept in redis that is part of every key of a cache,
+ * bumping it makes every entry cached so far unreachable at once without
+ * finding or deleting them, they expire on their own time to live. Used
+ * by caches whose entries depend on many rows e.g. list pages
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class CacheGeneration {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param redisTemplate {@link StringRedisTemplate} redis template
+     * @param key           {@link String} redis key of counter
+     */
+    public CacheGeneration(final StringRedisTemplate redisTemplate, final String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    /**
+     * @return current generation, 0 before first bump and null when redis
+     * could not be reached so caller skips the cache
+     */
+    public Long current() {
+        try {
+            final String generation = redisTemplate.opsForValue().get(key);
+            return generation != null ? Long.parseLong(generation) : 0L;
+        } catch (final RuntimeException e) {
+            log.warn("Could not read cache generation: {}, error: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * move to next generation, within a transaction it is done after
+     * commit so an entry loaded for the new generation always sees the
+     * change. Failure is logged only, time to live bounds the staleness
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment();
+                }
+            });
+        } else {
+            increment();
+        }
+    }
+
+    private void increment() {
+        try {
+            redisTemplate.opsForValue().increment(key);
+        } catch (final RuntimeException e) {
+            log.warn("Could not bump cache generation: {}, error: {}", key, e.getMessage());
+        }
+    }
+}
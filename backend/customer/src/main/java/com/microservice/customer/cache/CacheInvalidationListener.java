@@ -0,0 +1,45 @@
+package com.microservice.customer.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_CLEAR;
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_DELIMITER;
+
+/**
+ * receives near cache invalidation messages published by other pods
+ * and drops the matching entries from the in-process cache
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private static final Pattern DELIMITER = Pattern.compile(Pattern.quote(CACHE_INVALIDATION_DELIMITER));
+
+    private final TwoTierCacheManager cacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    /**
+     * parse message instanceId|cacheName|key and invalidate local entry,
+     * messages published by this pod are ignored
+     *
+     * @param message {@link Message} redis message
+     * @param pattern channel pattern
+     */
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        final String[] parts = DELIMITER.split(new String(message.getBody(), StandardCharsets.UTF_8), 3);
+        if (parts.length != 3 || invalidationPublisher.getInstanceId().equals(parts[0]))
+            return;
+        log.debug("Cache invalidation received, cache: {}, key: {}", parts[1], parts[2]);
+        cacheManager.invalidateLocal(parts[1], CACHE_INVALIDATION_CLEAR.equals(parts[2]) ? null : parts[2]);
+    }
+}
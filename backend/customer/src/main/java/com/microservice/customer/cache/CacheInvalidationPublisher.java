@@ -0,0 +1,64 @@
+package com.microservice.customer.cache;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_CHANNEL;
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_CLEAR;
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_DELIMITER;
+
+/**
+ * publishes near cache invalidation messages over redis pub/sub so
+ * every other pod drops its in-process copy of a changed entry
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class CacheInvalidationPublisher {
+
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param redisTemplate {@link StringRedisTemplate} redis template
+     */
+    public CacheInvalidationPublisher(final StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * publish invalidation message, message is formatted as
+     * instanceId|cacheName|key so this pod can ignore its own messages.
+     * Failure to publish is logged only, L1 time to live bounds the staleness
+     *
+     * @param cacheName {@link String} cache name
+     * @param key       {@link String} cache key, null invalidates whole cache
+     */
+    public void publish(final String cacheName, final String key) {
+        final String message = message(cacheName, key);
+        try {
+            redisTemplate.convertAndSend(CACHE_INVALIDATION_CHANNEL, message);
+        } catch (final RuntimeException e) {
+            log.warn("Could not publish cache invalidation: {}, error: {}", message, e.getMessage());
+        }
+    }
+
+    /**
+     * @param cacheName {@link String} cache name
+     * @param key       {@link String} cache key, null invalidates whole cache
+     * @return {@link String} invalidation message of this pod
+     */
+    public String message(final String cacheName, final String key) {
+        return String.join(CACHE_INVALIDATION_DELIMITER,
+                instanceId,
+                cacheName,
+                key != null ? key : CACHE_INVALIDATION_CLEAR);
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservice.customer.cache;
+
+import com.microservice.customer.exception.NoInstanceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.microservice.customer.utils.Constants.CACHE_TIER_L2;
+import static com.microservice.customer.utils.Constants.CACHE_TIER_TAG;
+
+/**
+ * latency of redis tier operations, published as cache.latency timer
+ * tagged with cache, tier and operation. In-process tier is not timed,
+ * its hit rate is published by cache statistics and a lookup costs far
+ * less than recording it. Bulk reads and writes take one round trip and
+ * are recorded as one operation
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+final class CacheLatency {
+
+    static final String GET = "get";
+    static final String PUT = "put";
+    static final String EVICT = "evict";
+
+    private CacheLatency() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     * @param cacheName     {@link String} cache name
+     * @param operation     {@link String} get, put or evict
+     * @return {@link Timer} redis tier timer of operation
+     */
+    static Timer timer(final MeterRegistry meterRegistry, final String cacheName, final String operation) {
+        return Timer.builder("cache.latency")
+                .description("Latency of redis tier cache operations")
+                .tag("cache", cacheName)
+                .tag(CACHE_TIER_TAG, CACHE_TIER_L2)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * time a non blocking operation from subscription until it completes,
+     * fails or is cancelled
+     *
+     * @param timer     {@link Timer} timer of operation
+     * @param operation {@link Mono} operation
+     * @return {@link Mono} timed operation
+     */
+    static <T> Mono<T> record(final Timer timer, final Mono<T> operation) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return operation.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+}
@@ -0,0 +1,284 @@
+package com.microservice.customer.cache;
+
+import com.microservice.customer.dto.CustomerDTO;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * redis value serializer that stores {@link CustomerDTO} in a compact
+ * binary form instead of json with type information, other values are
+ * delegated to json serializer. Values larger than compression threshold
+ * are deflated. First byte tells the format, json written before this
+ * serializer never starts with a format byte so it is still readable
+ *
+ * <pre>
+ * customer  : format, field flags (varint), id (16 bytes), names, email,
+ *             birth date (epoch day varint or text), phone, itin/ssn, version (varint)
+ * deflated  : format, raw length (varint), deflated customer or json
+ * </pre>
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte CUSTOMER = 0x01;
+    private static final byte DEFLATED_CUSTOMER = 0x02;
+    private static final byte DEFLATED_JSON = 0x03;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_FIRST_NAME = 1 << 1;
+    private static final int HAS_LAST_NAME = 1 << 2;
+    private static final int HAS_EMAIL = 1 << 3;
+    private static final int HAS_DATE_OF_BIRTH = 1 << 4;
+    private static final int HAS_PHONE_NUMBER = 1 << 5;
+    private static final int HAS_ITIN_OR_SSN = 1 << 6;
+    private static final int HAS_VERSION = 1 << 7;
+    private static final int DATE_OF_BIRTH_AS_TEXT = 1 << 8;
+
+    private final RedisSerializer<Object> delegate;
+    private final int compressionThreshold;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param delegate             {@link RedisSerializer} serializer of values other than customer
+     * @param compressionThreshold size in bytes above which values are deflated, zero or less disables it
+     */
+    public CompactRedisSerializer(final RedisSerializer<Object> delegate, final int compressionThreshold) {
+        this.delegate = delegate;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(final Object value) throws SerializationException {
+        if (value instanceof CustomerDTO customerDTO) {
+            final byte[] encoded = encode(customerDTO);
+            return shouldCompress(encoded.length - 1)
+                    ? deflate(DEFLATED_CUSTOMER, encoded, 1)
+                    : encoded;
+        }
+        final byte[] json = delegate.serialize(value);
+        return json != null && shouldCompress(json.length)
+                ? deflate(DEFLATED_JSON, json, 0)
+                : json;
+    }
+
+    @Override
+    public Object deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0)
+            return null;
+        return switch (bytes[0]) {
+            case CUSTOMER -> decode(ByteBuffer.wrap(bytes, 1, bytes.length - 1));
+            case DEFLATED_CUSTOMER -> decode(ByteBuffer.wrap(inflate(bytes)));
+            case DEFLATED_JSON -> delegate.deserialize(inflate(bytes));
+            default -> delegate.deserialize(bytes);
+        };
+    }
+
+    private boolean shouldCompress(final int length) {
+        return compressionThreshold > 0 && length > compressionThreshold;
+    }
+
+    /**
+     * @param customerDTO {@link CustomerDTO} customer
+     * @return format byte followed by encoded customer
+     */
+    private byte[] encode(final CustomerDTO customerDTO) {
+        final UUID id = parseId(customerDTO.getId());
+        final Long epochDay = parseDate(customerDTO.getDateOfBirth());
+        int flags = 0;
+        flags |= id != null ? HAS_ID : 0;
+        flags |= customerDTO.getFirstName() != null ? HAS_FIRST_NAME : 0;
+        flags |= customerDTO.getLastName() != null ? HAS_LAST_NAME : 0;
+        flags |= customerDTO.getEmail() != null ? HAS_EMAIL : 0;
+        flags |= customerDTO.getDateOfBirth() != null ? HAS_DATE_OF_BIRTH : 0;
+        flags |= customerDTO.getDateOfBirth() != null && epochDay == null ? DATE_OF_BIRTH_AS_TEXT : 0;
+        flags |= customerDTO.getPhoneNumber() != null ? HAS_PHONE_NUMBER : 0;
+        flags |= customerDTO.getItinOrSsn() != null ? HAS_ITIN_OR_SSN : 0;
+        flags |= customerDTO.getVersion() != null ? HAS_VERSION : 0;
+        if (customerDTO.getId() != null && id == null)
+            throw new SerializationException("Customer id is not a uuid: " + customerDTO.getId());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(CUSTOMER);
+        writeVarLong(out, flags);
+        if (id != null) {
+            writeLong(out, id.getMostSignificantBits());
+            writeLong(out, id.getLeastSignificantBits());
+        }
+        writeString(out, customerDTO.getFirstName());
+        writeString(out, customerDTO.getLastName());
+        writeString(out, customerDTO.getEmail());
+        if (epochDay != null)
+            writeVarLong(out, zigZag(epochDay));
+        else
+            writeString(out, customerDTO.getDateOfBirth());
+        writeString(out, customerDTO.getPhoneNumber());
+        writeString(out, customerDTO.getItinOrSsn());
+        if (customerDTO.getVersion() != null)
+            writeVarLong(out, customerDTO.getVersion());
+        return out.toByteArray();
+    }
+
+    /**
+     * @param buffer {@link ByteBuffer} encoded customer without format byte
+     * @return {@link CustomerDTO} customer
+     */
+    private CustomerDTO decode(final ByteBuffer buffer) {
+        try {
+            final int flags = (int) readVarLong(buffer);
+            final CustomerDTO.CustomerDTOBuilder builder = CustomerDTO.builder();
+            if ((flags & HAS_ID) != 0)
+                builder.id(new UUID(buffer.getLong(), buffer.getLong()).toString());
+            if ((flags & HAS_FIRST_NAME) != 0)
+                builder.firstName(readString(buffer));
+            if ((flags & HAS_LAST_NAME) != 0)
+                builder.lastName(readString(buffer));
+            if ((flags & HAS_EMAIL) != 0)
+                builder.email(readString(buffer));
+            if ((flags & HAS_DATE_OF_BIRTH) != 0)
+                builder.dateOfBirth((flags & DATE_OF_BIRTH_AS_TEXT) != 0
+                        ? readString(buffer)
+                        : LocalDate.ofEpochDay(unZigZag(readVarLong(buffer))).toString());
+            if ((flags & HAS_PHONE_NUMBER) != 0)
+                builder.phoneNumber(readString(buffer));
+            if ((flags & HAS_ITIN_OR_SSN) != 0)
+                builder.itinOrSsn(readString(buffer));
+            if ((flags & HAS_VERSION) != 0)
+                builder.version(readVarLong(buffer));
+            return builder.build();
+        } catch (final RuntimeException e) {
+            throw new SerializationException("Could not decode customer", e);
+        }
+    }
+
+    /**
+     * @param format format byte
+     * @param raw    bytes to deflate
+     * @param offset offset of first byte to deflate
+     * @return format byte, raw length and deflated bytes
+     */
+    private byte[] deflate(final byte format, final byte[] raw, final int offset) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw, offset, raw.length - offset);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            out.write(format);
+            writeVarLong(out, raw.length - offset);
+            final byte[] chunk = new byte[Math.min(raw.length, 8192)];
+            while (!deflater.finished())
+                out.write(chunk, 0, deflater.deflate(chunk));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param bytes format byte, raw length and deflated bytes
+     * @return raw bytes
+     */
+    private byte[] inflate(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        final Inflater inflater = new Inflater();
+        try {
+            final byte[] raw = new byte[Math.toIntExact(readVarLong(buffer))];
+            inflater.setInput(bytes, buffer.position(), buffer.remaining());
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new SerializationException("Deflated value is truncated");
+                length += inflated;
+            }
+            return raw;
+        } catch (final DataFormatException | RuntimeException e) {
+            throw new SerializationException("Could not inflate value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static UUID parseId(final String id) {
+        try {
+            return id != null ? UUID.fromString(id) : null;
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param date {@link String} date of birth
+     * @return epoch day when date is an iso date that prints back the same, otherwise null
+     */
+    private static Long parseDate(final String date) {
+        if (date == null)
+            return null;
+        try {
+            final LocalDate localDate = LocalDate.parse(date);
+            return localDate.toString().equals(date) ? localDate.toEpochDay() : null;
+        } catch (final DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(final ByteArrayOutputStream out, final String value) {
+        if (value == null)
+            return;
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = Math.toIntExact(readVarLong(buffer));
+        final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeLong(final ByteArrayOutputStream out, final long value) {
+        for (int shift = 56; shift >= 0; shift -= 8)
+            out.write((int) (value >>> shift));
+    }
+
+    private static void writeVarLong(final ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(final ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
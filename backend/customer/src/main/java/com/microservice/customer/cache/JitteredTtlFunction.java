@@ -0,0 +1,52 @@
+package com.microservice.customer.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * time to live extended by a fraction of itself that is derived from the
+ * key, entries loaded together expire spread over the jitter window
+ * instead of all at once. Same key always gets the same time to live so
+ * expiry known in process matches redis
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final Duration timeToLive;
+    private final double jitter;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param timeToLive {@link Duration} base time to live
+     * @param jitter     max fraction of time to live added to it
+     */
+    public JitteredTtlFunction(final Duration timeToLive, final double jitter) {
+        this.timeToLive = timeToLive;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Duration getTimeToLive(final Object key, final Object value) {
+        return timeToLive.plusMillis((long) (timeToLive.toMillis() * jitter * spread(key)));
+    }
+
+    /**
+     * @param key {@link Object} cache key
+     * @return value in [0, 1) uniformly spread over keys
+     */
+    private static double spread(final Object key) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : String.valueOf(key).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,61 @@
+package com.microservice.customer.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * non blocking view of a {@link CacheGeneration} counter, reads and bumps
+ * the same redis key so pods of both serving modes share one generation
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class ReactiveCacheGeneration {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String key;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param redisTemplate {@link ReactiveStringRedisTemplate} reactive redis template
+     * @param key           {@link String} redis key of counter
+     */
+    public ReactiveCacheGeneration(final ReactiveStringRedisTemplate redisTemplate, final String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    /**
+     * @return {@link Mono} current generation, 0 before first bump and
+     * empty when redis could not be reached so caller skips the cache
+     */
+    public Mono<Long> current() {
+        return redisTemplate.opsForValue()
+                .get(key)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .onErrorResume(e -> {
+                    log.warn("Could not read cache generation: {}, error: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * move to next generation, callers bump after their transaction
+     * completed. Failure is logged only, time to live bounds the staleness
+     *
+     * @return {@link Mono} completion
+     */
+    public Mono<Void> bump() {
+        return redisTemplate.opsForValue()
+                .increment(key)
+                .onErrorResume(e -> {
+                    log.warn("Could not bump cache generation: {}, error: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
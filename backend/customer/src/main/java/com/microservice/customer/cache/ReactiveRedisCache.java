@@ -0,0 +1,211 @@
+package com.microservice.customer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_CHANNEL;
+
+/**
+ * non blocking view of a redis cache for reactive serving mode. Key
+ * prefix, serializer and jittered time to live are taken from the redis
+ * configuration of the same cache so entries are shared with pods serving
+ * blocking requests. There is no in-process tier, writes and evictions
+ * are published on invalidation channel so in-process tier of other
+ * pods drops the entry. Concurrent loads of a key within this pod are
+ * coalesced into a single load. Redis round trips are timed, see
+ * {@link CacheLatency}
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class ReactiveRedisCache {
+
+    private final String name;
+    private final RedisCacheConfiguration configuration;
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Timer getTimer;
+    private final Timer putTimer;
+    private final Timer evictTimer;
+    private final Map<String, Mono<Object>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param name                  {@link String} cache name
+     * @param configuration         {@link RedisCacheConfiguration} redis configuration of cache
+     * @param connectionFactory     {@link ReactiveRedisConnectionFactory} reactive redis connection factory
+     * @param stringRedisTemplate   {@link ReactiveStringRedisTemplate} publisher of invalidation messages
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} formatter of invalidation messages
+     * @param meterRegistry         {@link MeterRegistry} registry of redis tier timers
+     */
+    public ReactiveRedisCache(final String name,
+                              final RedisCacheConfiguration configuration,
+                              final ReactiveRedisConnectionFactory connectionFactory,
+                              final ReactiveStringRedisTemplate stringRedisTemplate,
+                              final CacheInvalidationPublisher invalidationPublisher,
+                              final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.configuration = configuration;
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                .<String, Object>newSerializationContext(RedisSerializer.string())
+                .value(configuration.getValueSerializationPair())
+                .build());
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.getTimer = CacheLatency.timer(meterRegistry, name, CacheLatency.GET);
+        this.putTimer = CacheLatency.timer(meterRegistry, name, CacheLatency.PUT);
+        this.evictTimer = CacheLatency.timer(meterRegistry, name, CacheLatency.EVICT);
+    }
+
+    /**
+     * @return {@link String} cache name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param key {@link String} cache key
+     * @return {@link Mono} cached value, empty on miss
+     */
+    public Mono<Object> get(final String key) {
+        return CacheLatency.record(getTimer, redisTemplate.opsForValue().get(redisKey(key)));
+    }
+
+    /**
+     * read many keys with a single MGET
+     *
+     * @param keys {@link Collection} cache keys
+     * @return {@link Mono} cached values by key, missing keys are absent
+     */
+    public Mono<Map<String, Object>> getAll(final Collection<String> keys) {
+        if (keys.isEmpty())
+            return Mono.just(Map.of());
+        final List<String> cacheKeys = new ArrayList<>(keys);
+        return CacheLatency.record(getTimer, redisTemplate.opsForValue()
+                        .multiGet(cacheKeys.stream().map(this::redisKey).toList()))
+                .map(values -> {
+                    final Map<String, Object> found = new LinkedHashMap<>();
+                    for (int i = 0; i < cacheKeys.size(); i++) {
+                        if (values.get(i) != null)
+                            found.put(cacheKeys.get(i), values.get(i));
+                    }
+                    return found;
+                });
+    }
+
+    /**
+     * return cached value, on miss value is loaded once no matter how
+     * many requests of this pod ask for the key at the same time
+     *
+     * @param key    {@link String} cache key
+     * @param loader {@link Supplier} load of value, empty result is not cached
+     * @return {@link Mono} cached or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(final String key, final Supplier<Mono<T>> loader) {
+        return get(key)
+                .switchIfEmpty(Mono.defer(() -> loads.computeIfAbsent(key, load -> loader.get()
+                        .cast(Object.class)
+                        .flatMap(value -> set(key, value).thenReturn(value))
+                        .doFinally(signal -> loads.remove(load))
+                        .cache())))
+                .map(value -> (T) value);
+    }
+
+    /**
+     * store value and drop it from in-process tier of every pod
+     *
+     * @param key   {@link String} cache key
+     * @param value {@link Object} value
+     * @return {@link Mono} completion
+     */
+    public Mono<Void> put(final String key, final Object value) {
+        return set(key, value).then(publish(key));
+    }
+
+    /**
+     * store values of keys not cached yet, existing entries are kept
+     *
+     * @param values {@link Map} values by key
+     * @return {@link Mono} completion
+     */
+    public Mono<Void> putAllIfAbsent(final Map<String, ?> values) {
+        return CacheLatency.record(putTimer, Flux.fromIterable(values.entrySet())
+                .flatMap(entry -> {
+                    final Duration ttl = timeToLive(entry.getKey(), entry.getValue());
+                    return ttl != null
+                            ? redisTemplate.opsForValue().setIfAbsent(redisKey(entry.getKey()), entry.getValue(), ttl)
+                            : redisTemplate.opsForValue().setIfAbsent(redisKey(entry.getKey()), entry.getValue());
+                })
+                .then());
+    }
+
+    /**
+     * remove value and drop it from in-process tier of every pod
+     *
+     * @param key {@link String} cache key
+     * @return {@link Mono} completion
+     */
+    public Mono<Void> evict(final String key) {
+        return CacheLatency.record(evictTimer, redisTemplate.delete(redisKey(key))).then(publish(key));
+    }
+
+    private Mono<Boolean> set(final String key, final Object value) {
+        final Duration ttl = timeToLive(key, value);
+        return CacheLatency.record(putTimer, ttl != null
+                ? redisTemplate.opsForValue().set(redisKey(key), value, ttl)
+                : redisTemplate.opsForValue().set(redisKey(key), value));
+    }
+
+    /**
+     * failure to publish is logged only, same as blocking publisher
+     *
+     * @param key {@link String} cache key
+     * @return {@link Mono} completion
+     */
+    private Mono<Void> publish(final String key) {
+        final String message = invalidationPublisher.message(name, key);
+        return stringRedisTemplate.convertAndSend(CACHE_INVALIDATION_CHANNEL, message)
+                .onErrorResume(e -> {
+                    log.warn("Could not publish cache invalidation: {}, error: {}", message, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * @param key   {@link String} cache key
+     * @param value {@link Object} value
+     * @return {@link Duration} jittered time to live, null when entry does not expire
+     */
+    private Duration timeToLive(final String key, final Object value) {
+        final Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    private String redisKey(final String key) {
+        return configuration.usePrefix() ? configuration.getKeyPrefixFor(name) + key : key;
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservice.customer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * provides {@link ReactiveRedisCache} of caches registered in
+ * {@link TwoTierCacheManager}, each one uses redis configuration of
+ * the cache with same name
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class ReactiveRedisCacheManager {
+
+    private final Map<String, ReactiveRedisCache> caches = new ConcurrentHashMap<>();
+    private final TwoTierCacheManager cacheManager;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param cacheManager          {@link TwoTierCacheManager} owner of redis configuration of every cache
+     * @param connectionFactory     {@link ReactiveRedisConnectionFactory} reactive redis connection factory
+     * @param stringRedisTemplate   {@link ReactiveStringRedisTemplate} publisher of invalidation messages
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} formatter of invalidation messages
+     * @param meterRegistry         {@link MeterRegistry} registry of redis tier timers
+     */
+    public ReactiveRedisCacheManager(final TwoTierCacheManager cacheManager,
+                                     final ReactiveRedisConnectionFactory connectionFactory,
+                                     final ReactiveStringRedisTemplate stringRedisTemplate,
+                                     final CacheInvalidationPublisher invalidationPublisher,
+                                     final MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.connectionFactory = connectionFactory;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param name {@link String} cache name
+     * @return {@link ReactiveRedisCache} cache
+     */
+    public ReactiveRedisCache getCache(final String name) {
+        return caches.computeIfAbsent(name, key -> {
+            final RedisCacheConfiguration configuration = Objects.requireNonNull(
+                    cacheManager.getCacheConfiguration(key), key);
+            return new ReactiveRedisCache(key,
+                    configuration,
+                    connectionFactory,
+                    stringRedisTemplate,
+                    invalidationPublisher,
+                    meterRegistry);
+        });
+    }
+}
@@ -0,0 +1,590 @@
+package com.microservice.customer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.microservice.customer.utils.Constants.CACHE_LOCK_SUFFIX;
+
+/**
+ * two tier cache, an in-process bounded cache (L1) sits in front of
+ * redis (L2). Reads are served from L1 when possible, L1 misses fall
+ * back to redis and populate L1. Every write or eviction is applied to
+ * both tiers and published to other pods so their L1 copy is dropped.
+ * Loads are coalesced so concurrent misses of a key share one load, hot
+ * keys are refreshed shortly before they expire and optionally a redis
+ * lock lets a single pod load a key. Redis round trips are timed, see
+ * {@link CacheLatency}
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TwoTierCache implements Cache {
+
+    private static final byte[] LOCK_VALUE = {'1'};
+    private static final long LOCK_POLL_INTERVAL = 25;
+
+    @Getter
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+    @Getter
+    private final RedisCache redisCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheStatisticsCollector statistics;
+    private final double earlyRefreshBeta;
+    private final Duration lockTimeout;
+    private final Timer remoteGetTimer;
+    private final Timer remotePutTimer;
+    private final Timer remoteEvictTimer;
+    private final Map<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    /**
+     * moving average of load time in milliseconds, stretches early
+     * refresh window of caches that are expensive to load
+     */
+    private volatile double loadMillis = 1;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param localCache            {@link com.github.benmanes.caffeine.cache.Cache} in-process L1 cache
+     * @param redisCache            {@link RedisCache} redis L2 cache
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} cross pod invalidation publisher
+     * @param connectionFactory     {@link RedisConnectionFactory} connection factory used by bulk operations and locks
+     * @param statistics            {@link CacheStatisticsCollector} statistics of redis tier, counts reads that bypass {@link RedisCache}
+     * @param earlyRefreshBeta      eagerness of early refresh, zero disables it
+     * @param lockTimeout           {@link Duration} time a pod holds the load lock of a key, zero disables it
+     * @param meterRegistry         {@link MeterRegistry} registry of redis tier timers
+     */
+    public TwoTierCache(final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                        final RedisCache redisCache,
+                        final CacheInvalidationPublisher invalidationPublisher,
+                        final RedisConnectionFactory connectionFactory,
+                        final CacheStatisticsCollector statistics,
+                        final double earlyRefreshBeta,
+                        final Duration lockTimeout,
+                        final MeterRegistry meterRegistry) {
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.connectionFactory = connectionFactory;
+        this.statistics = statistics;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.lockTimeout = lockTimeout;
+        this.remoteGetTimer = CacheLatency.timer(meterRegistry, getName(), CacheLatency.GET);
+        this.remotePutTimer = CacheLatency.timer(meterRegistry, getName(), CacheLatency.PUT);
+        this.remoteEvictTimer = CacheLatency.timer(meterRegistry, getName(), CacheLatency.EVICT);
+    }
+
+    @Override
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    /**
+     * lookup L1 first, on miss lookup redis and keep the value
+     * in L1 for next reads
+     *
+     * @param key {@link Object} cache key
+     * @return {@link ValueWrapper} cached value or null on miss
+     */
+    @Override
+    public ValueWrapper get(final Object key) {
+        final ValueWrapper local = localCache.getIfPresent(localKey(key));
+        if (local != null)
+            return local;
+        final ValueWrapper remote = remoteGetTimer.record(() -> redisCache.get(key));
+        if (remote != null)
+            localCache.put(localKey(key), new SimpleValueWrapper(remote.get()));
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value))
+            throw new IllegalStateException("Cached value is not of required type [%s]: %s"
+                    .formatted(type.getName(), value));
+        return (T) value;
+    }
+
+    /**
+     * return cached value or load it with the value loader. Concurrent
+     * misses of a key in this pod wait for a single load. A hit close to
+     * redis expiry is refreshed early with a probability that grows as
+     * expiry approaches (XFetch), so a hot key is reloaded by one request
+     * before it expires instead of by every request after it expired.
+     * Loaded value is stored in both tiers, other pods are notified only
+     * when an existing value was refreshed
+     *
+     * @param key         {@link Object} cache key
+     * @param valueLoader {@link Callable} loader invoked on miss
+     * @return cached or loaded value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        ValueWrapper wrapper = localCache.getIfPresent(localKey(key));
+        if (wrapper == null)
+            wrapper = getRemote(key);
+        if (wrapper != null && !refreshEarly(wrapper))
+            return (T) wrapper.get();
+        return (T) load(key, valueLoader, wrapper);
+    }
+
+    /**
+     * bulk lookup, keys missing in L1 are read from redis with a single
+     * MGET and kept in L1 for next reads
+     *
+     * @param keys {@link Collection} cache keys
+     * @return {@link Map} cached values of keys that were found
+     */
+    public Map<Object, Object> getAll(final Collection<?> keys) {
+        final Map<Object, Object> values = new LinkedHashMap<>();
+        final List<Object> misses = new ArrayList<>();
+        for (final Object key : keys) {
+            final ValueWrapper local = localCache.getIfPresent(localKey(key));
+            if (local != null)
+                values.put(key, local.get());
+            else
+                misses.add(key);
+        }
+        if (misses.isEmpty())
+            return values;
+        final List<byte[]> remote = remoteGetTimer.record(() -> {
+            try (final RedisConnection connection = connectionFactory.getConnection()) {
+                return connection.stringCommands().mGet(misses.stream()
+                        .map(this::redisKey)
+                        .toArray(byte[][]::new));
+            }
+        });
+        for (int i = 0; remote != null && i < misses.size(); i++) {
+            countRead(remote.get(i) != null);
+            if (remote.get(i) == null)
+                continue;
+            final Object value = deserialize(remote.get(i));
+            localCache.put(localKey(misses.get(i)), new SimpleValueWrapper(value));
+            values.put(misses.get(i), value);
+        }
+        return values;
+    }
+
+    /**
+     * bulk store of values loaded after a bulk lookup, redis writes are
+     * pipelined and only applied to absent keys so a value written by a
+     * concurrent update is never replaced with the loaded one. Only values
+     * that were stored are kept in L1, a key whose redis write lost keeps
+     * being read from redis. Like {@link #get(Object, Callable)} other pods
+     * are not notified
+     *
+     * @param values {@link Map} loaded values by cache key
+     */
+    public void putAllIfAbsent(final Map<?, ?> values) {
+        if (values.isEmpty())
+            return;
+        final RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        final List<Object> keys = new ArrayList<>(values.keySet());
+        final List<Object> stored = remotePutTimer.record(() -> {
+            try (final RedisConnection connection = connectionFactory.getConnection()) {
+                connection.openPipeline();
+                keys.forEach(key -> connection.stringCommands().set(
+                        redisKey(key),
+                        ByteUtils.getBytes(configuration.getValueSerializationPair().write(values.get(key))),
+                        Expiration.from(configuration.getTtlFunction().getTimeToLive(key, values.get(key))),
+                        SetOption.ifAbsent()));
+                return connection.closePipeline();
+            }
+        });
+        for (int i = 0; stored != null && i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(stored.get(i)))
+                localCache.put(localKey(keys.get(i)), new SimpleValueWrapper(values.get(keys.get(i))));
+        }
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        remotePutTimer.record(() -> redisCache.put(key, value));
+        localCache.put(localKey(key), new SimpleValueWrapper(value));
+        invalidationPublisher.publish(getName(), localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final ValueWrapper existing = remotePutTimer.record(() -> redisCache.putIfAbsent(key, value));
+        localCache.put(localKey(key), new SimpleValueWrapper(existing != null ? existing.get() : value));
+        if (existing == null)
+            invalidationPublisher.publish(getName(), localKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        remoteEvictTimer.record(() -> redisCache.evict(key));
+        localCache.invalidate(localKey(key));
+        invalidationPublisher.publish(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final boolean evicted = remoteEvictTimer.record(() -> redisCache.evictIfPresent(key));
+        localCache.invalidate(localKey(key));
+        invalidationPublisher.publish(getName(), localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteEvictTimer.record(() -> redisCache.clear());
+        localCache.invalidateAll();
+        invalidationPublisher.publish(getName(), null);
+    }
+
+    /**
+     * drop entry from L1 only, invoked when other pod changed
+     * the value in redis
+     *
+     * @param key {@link String} local cache key, null drops every entry
+     */
+    public void invalidateLocal(final String key) {
+        if (key == null)
+            localCache.invalidateAll();
+        else
+            localCache.invalidate(key);
+    }
+
+    /**
+     * lookup redis and keep the value in L1 together with its
+     * redis expiry which drives early refresh, value and expiry are
+     * read in a single pipelined round trip
+     *
+     * @param key {@link Object} cache key
+     * @return {@link ValueWrapper} cached value or null on miss
+     */
+    private ValueWrapper getRemote(final Object key) {
+        return cacheLocally(key, remoteGetTimer.record(() -> readRemote(key, false)));
+    }
+
+    /**
+     * pipeline GET and PTTL of the entry, optionally preceded by EXISTS
+     * of its load lock. Lock is checked first, the holder stores the value
+     * before it releases the lock so a released lock and a missing value
+     * mean the holder failed to load
+     *
+     * @param key       {@link Object} cache key
+     * @param checkLock true to check the load lock as well
+     * @return {@link RemoteEntry} redis entry
+     */
+    private RemoteEntry readRemote(final Object key, final boolean checkLock) {
+        final List<Object> replies;
+        try (final RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            if (checkLock)
+                connection.keyCommands().exists(lockKey(key));
+            connection.stringCommands().get(redisKey(key));
+            connection.keyCommands().pTtl(redisKey(key));
+            replies = connection.closePipeline();
+        }
+        final int offset = checkLock ? 1 : 0;
+        return new RemoteEntry(!checkLock || Boolean.TRUE.equals(replies.get(0)),
+                (byte[]) replies.get(offset),
+                (Long) replies.get(offset + 1));
+    }
+
+    /**
+     * keep a redis entry in L1 together with its expiry
+     *
+     * @param key   {@link Object} cache key
+     * @param entry {@link RemoteEntry} redis entry
+     * @return {@link ValueWrapper} cached value or null on miss
+     */
+    private ValueWrapper cacheLocally(final Object key, final RemoteEntry entry) {
+        countRead(entry.value() != null);
+        if (entry.value() == null)
+            return null;
+        final ValueWrapper local = new ExpiringValueWrapper(deserialize(entry.value()),
+                entry.timeToLive() != null && entry.timeToLive() >= 0
+                        ? System.currentTimeMillis() + entry.timeToLive()
+                        : Long.MAX_VALUE);
+        localCache.put(localKey(key), local);
+        return local;
+    }
+
+    /**
+     * count a redis read that did not go through {@link RedisCache}
+     * so hit/miss ratio of redis tier stays complete
+     *
+     * @param hit true when redis held the entry
+     */
+    private void countRead(final boolean hit) {
+        statistics.incGets(getName());
+        if (hit)
+            statistics.incHits(getName());
+        else
+            statistics.incMisses(getName());
+    }
+
+    /**
+     * XFetch decision, refresh when now minus scaled load time times
+     * log of a uniform random number passes expiry
+     *
+     * @param wrapper {@link ValueWrapper} cached value
+     * @return true when this request should refresh the value
+     */
+    private boolean refreshEarly(final ValueWrapper wrapper) {
+        if (earlyRefreshBeta <= 0 || !(wrapper instanceof ExpiringValueWrapper expiring))
+            return false;
+        final double gap = -loadMillis * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiring.expiresAt();
+    }
+
+    /**
+     * single flight load, first caller loads and the rest wait for its
+     * result. While a refresh is in flight current value keeps being served
+     *
+     * @param key         {@link Object} cache key
+     * @param valueLoader {@link Callable} loader
+     * @param current     {@link ValueWrapper} value being refreshed, null on miss
+     * @return loaded value
+     */
+    private Object load(final Object key, final Callable<?> valueLoader, final ValueWrapper current) {
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> inFlight = loads.putIfAbsent(localKey(key), flight);
+        if (inFlight != null) {
+            if (current != null)
+                return current.get();
+            try {
+                return inFlight.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw e;
+            }
+        }
+        try {
+            final Object value = loadExclusively(key, valueLoader, current);
+            flight.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey(key), flight);
+        }
+    }
+
+    /**
+     * load value holding the redis lock of the key. When other pod holds
+     * the lock a refresh is skipped and a miss waits for the value other
+     * pod loads, it loads by itself only if the lock expires first
+     *
+     * @param key         {@link Object} cache key
+     * @param valueLoader {@link Callable} loader
+     * @param current     {@link ValueWrapper} value being refreshed, null on miss
+     * @return loaded value
+     */
+    private Object loadExclusively(final Object key, final Callable<?> valueLoader, final ValueWrapper current) {
+        final boolean locked = lock(key);
+        if (!locked && current != null)
+            return current.get();
+        if (!locked) {
+            final ValueWrapper loaded = awaitRemote(key);
+            if (loaded != null)
+                return loaded.get();
+        }
+        try {
+            final long started = System.nanoTime();
+            final Object value;
+            try {
+                value = valueLoader.call();
+            } catch (final Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            loadMillis = (loadMillis * 7 + (System.nanoTime() - started) / 1_000_000d) / 8;
+            redisCache.put(key, value);
+            localCache.put(localKey(key), new ExpiringValueWrapper(value, expiresAt(key, value)));
+            if (current != null)
+                invalidationPublisher.publish(getName(), localKey(key));
+            return value;
+        } finally {
+            if (locked)
+                unlock(key);
+        }
+    }
+
+    /**
+     * poll redis until other pod stored the value or released its lock.
+     * A lock released without a value means the load of other pod failed,
+     * e.g. the entity does not exist, so waiting stops right away instead
+     * of until the lock expires
+     *
+     * @param key {@link Object} cache key
+     * @return {@link ValueWrapper} value loaded by other pod, null when lock was released or expired
+     */
+    private ValueWrapper awaitRemote(final Object key) {
+        final long deadline = System.currentTimeMillis() + lockTimeout.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            final RemoteEntry entry = remoteGetTimer.record(() -> readRemote(key, true));
+            final ValueWrapper remote = cacheLocally(key, entry);
+            if (remote != null || !entry.locked())
+                return remote;
+        }
+        return null;
+    }
+
+    /**
+     * @param key {@link Object} cache key
+     * @return true when this pod may load the key
+     */
+    private boolean lock(final Object key) {
+        if (lockTimeout.isZero())
+            return true;
+        try (final RedisConnection connection = connectionFactory.getConnection()) {
+            return Boolean.TRUE.equals(connection.stringCommands().set(lockKey(key),
+                    LOCK_VALUE,
+                    Expiration.from(lockTimeout),
+                    SetOption.ifAbsent()));
+        }
+    }
+
+    /**
+     * @param key {@link Object} cache key
+     */
+    private void unlock(final Object key) {
+        if (lockTimeout.isZero())
+            return;
+        try (final RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(lockKey(key));
+        }
+    }
+
+    /**
+     * @param key   {@link Object} cache key
+     * @param value loaded value
+     * @return epoch milliseconds at which redis entry expires
+     */
+    private long expiresAt(final Object key, final Object value) {
+        final Duration timeToLive = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+        return timeToLive.isZero() || timeToLive.isNegative()
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + timeToLive.toMillis();
+    }
+
+    /**
+     * L1 keys are kept in their string form which is the same form
+     * redis key and invalidation messages use
+     *
+     * @param key {@link Object} cache key
+     * @return {@link String} local cache key
+     */
+    private String localKey(final Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * redis key of an entry, prefixed and serialized the same way
+     * {@link RedisCache} does
+     *
+     * @param key {@link Object} cache key
+     * @return serialized redis key
+     */
+    private byte[] redisKey(final Object key) {
+        return serializeKey(redisKeyOf(key));
+    }
+
+    /**
+     * @param key {@link Object} cache key
+     * @return serialized key of the load lock
+     */
+    private byte[] lockKey(final Object key) {
+        return serializeKey(redisKeyOf(key) + CACHE_LOCK_SUFFIX);
+    }
+
+    /**
+     * @param key {@link Object} cache key
+     * @return {@link String} prefixed redis key
+     */
+    private String redisKeyOf(final Object key) {
+        final RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        final String redisKey = configuration.getConversionService().convert(key, String.class);
+        return configuration.usePrefix()
+                ? configuration.getKeyPrefixFor(getName()) + redisKey
+                : redisKey;
+    }
+
+    /**
+     * @param redisKey {@link String} prefixed redis key
+     * @return serialized redis key
+     */
+    private byte[] serializeKey(final String redisKey) {
+        return ByteUtils.getBytes(redisCache.getCacheConfiguration().getKeySerializationPair().write(redisKey));
+    }
+
+    /**
+     * @param value serialized redis value
+     * @return {@link Object} deserialized value, null when a null value was cached
+     */
+    private Object deserialize(final byte[] value) {
+        final Object stored = redisCache.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(value));
+        return stored instanceof NullValue ? null : stored;
+    }
+
+    /**
+     * redis entry read by a single pipelined round trip
+     *
+     * @param locked     true when load lock of the key is held, always true when lock was not checked
+     * @param value      serialized value, null on miss
+     * @param timeToLive remaining time to live in milliseconds, negative when entry has no expiry
+     */
+    private record RemoteEntry(boolean locked, byte[] value, Long timeToLive) {
+    }
+
+    /**
+     * L1 value of an entry whose redis expiry is known
+     *
+     * @param value     cached value
+     * @param expiresAt epoch milliseconds at which redis entry expires
+     */
+    private record ExpiringValueWrapper(Object value, long expiresAt) implements ValueWrapper {
+
+        @Override
+        public Object get() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.microservice.customer.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.customer.config.CacheRegistryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * cache manager that decorates every redis cache with a bounded
+ * in-process cache, see {@link TwoTierCache}
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheStatisticsCollector statistics;
+    private final CacheRegistryProperties cacheRegistry;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param redisCacheManager     {@link RedisCacheManager} L2 cache manager
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} cross pod invalidation publisher
+     * @param connectionFactory     {@link RedisConnectionFactory} connection factory used by bulk operations
+     * @param statistics            {@link CacheStatisticsCollector} statistics of redis tier
+     * @param cacheRegistry         {@link CacheRegistryProperties} settings of in-process tier and loads
+     * @param meterRegistry         {@link MeterRegistry} registry of redis tier timers
+     */
+    public TwoTierCacheManager(final RedisCacheManager redisCacheManager,
+                               final CacheInvalidationPublisher invalidationPublisher,
+                               final RedisConnectionFactory connectionFactory,
+                               final CacheStatisticsCollector statistics,
+                               final CacheRegistryProperties cacheRegistry,
+                               final MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.connectionFactory = connectionFactory;
+        this.statistics = statistics;
+        this.cacheRegistry = cacheRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final TwoTierCache cache = caches.get(name);
+        if (cache != null)
+            return cache;
+        final RedisCache redisCache = (RedisCache) redisCacheManager.getCache(name);
+        if (redisCache == null)
+            return null;
+        final CacheRegistryProperties.ResolvedSpec spec = cacheRegistry.resolve(name);
+        return caches.computeIfAbsent(name, key -> new TwoTierCache(
+                Caffeine.newBuilder()
+                        .maximumSize(spec.localMaxSize())
+                        .expireAfterWrite(spec.localTimeToLive())
+                        .recordStats()
+                        .build(),
+                redisCache,
+                invalidationPublisher,
+                connectionFactory,
+                statistics,
+                cacheRegistry.getStampede().getBeta(),
+                cacheRegistry.getStampede().getLockTimeout(),
+                meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    /**
+     * @param name {@link String} cache name
+     * @return {@link RedisCacheConfiguration} redis tier configuration of cache, null when cache is unknown
+     */
+    public RedisCacheConfiguration getCacheConfiguration(final String name) {
+        final RedisCache redisCache = (RedisCache) redisCacheManager.getCache(name);
+        return redisCache != null ? redisCache.getCacheConfiguration() : null;
+    }
+
+    /**
+     * drop entry from in-process cache only, entries of caches that
+     * are not yet created in this pod are ignored
+     *
+     * @param name {@link String} cache name
+     * @param key  {@link String} cache key, null drops every entry
+     */
+    public void invalidateLocal(final String name, final String key) {
+        final TwoTierCache cache = caches.get(name);
+        if (cache != null)
+            cache.invalidateLocal(key);
+    }
+}
@@ -0,0 +1,36 @@
+package com.microservice.customer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+
+import static com.microservice.customer.utils.Constants.CACHE_TIER_L1;
+import static com.microservice.customer.utils.Constants.CACHE_TIER_L2;
+import static com.microservice.customer.utils.Constants.CACHE_TIER_TAG;
+
+/**
+ * publishes cache metrics of both tiers, in-process and redis hit
+ * rates are distinguished by the tier tag
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TwoTierCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoTierCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(final TwoTierCache cache, final Iterable<Tag> tags) {
+        final MeterBinder localBinder = new CaffeineCacheMetrics<>(cache.getLocalCache(),
+                cache.getName(),
+                Tags.of(tags).and(CACHE_TIER_TAG, CACHE_TIER_L1));
+        final MeterBinder redisBinder = new RedisCacheMetrics(cache.getRedisCache(),
+                Tags.of(tags).and(CACHE_TIER_TAG, CACHE_TIER_L2));
+        return (final MeterRegistry registry) -> {
+            localBinder.bindTo(registry);
+            redisBinder.bindTo(registry);
+        };
+    }
+}
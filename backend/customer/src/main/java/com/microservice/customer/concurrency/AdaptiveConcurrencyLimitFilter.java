@@ -0,0 +1,97 @@
+package com.microservice.customer.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.dto.Response;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.microservice.customer.utils.Constants.SERVICE_BUSY;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * sheds requests above adaptive concurrency limit with 503 and
+ * Retry-After on servlet serving mode. Latency of every served request is
+ * fed back to the limiter, 503 or 504 answered further down the chain by
+ * a bulkhead, circuit breaker or connection pool counts as dropped.
+ * Failed and asynchronous requests, e.g. export, are not sampled.
+ * Actuator requests are never limited so probes keep answering under load
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration retryAfter;
+    private final String excludedPath;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param limiter      {@link AdaptiveConcurrencyLimiter} adaptive concurrency limit
+     * @param retryAfter   {@link Duration} time client is asked to wait before retrying
+     * @param excludedPath {@link String} path prefix that is never limited, relative to context path
+     * @param objectMapper {@link ObjectMapper} writer of rejection body
+     */
+    public AdaptiveConcurrencyLimitFilter(final AdaptiveConcurrencyLimiter limiter,
+                                          final Duration retryAfter,
+                                          final String excludedPath,
+                                          final ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.retryAfter = retryAfter;
+        this.excludedPath = excludedPath;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + excludedPath);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            log.warn("Request shed, concurrency limit {} reached: {} {}",
+                    limiter.getLimit(), request.getMethod(), request.getRequestURI());
+            reject(response);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (final Throwable e) {
+            limiter.onIgnore();
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            limiter.onIgnore();
+        } else if (response.getStatus() == SERVICE_UNAVAILABLE.value()
+                || response.getStatus() == GATEWAY_TIMEOUT.value()) {
+            limiter.onDropped();
+        } else {
+            limiter.onSuccess(System.nanoTime() - start);
+        }
+    }
+
+    private void reject(final HttpServletResponse response) throws IOException {
+        response.setStatus(SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new Response<>(SERVICE_BUSY, SERVICE_UNAVAILABLE.value()));
+    }
+}
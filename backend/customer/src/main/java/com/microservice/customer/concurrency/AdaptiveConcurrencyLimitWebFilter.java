@@ -0,0 +1,101 @@
+package com.microservice.customer.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.dto.Response;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+import static com.microservice.customer.utils.Constants.SERVICE_BUSY;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * sheds requests above adaptive concurrency limit with 503 and
+ * Retry-After on reactive serving mode, counterpart of
+ * {@link AdaptiveConcurrencyLimitFilter}. Slot is held until the response
+ * completes, cancelled and streamed responses, e.g. export, are not sampled
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class AdaptiveConcurrencyLimitWebFilter implements WebFilter, Ordered {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration retryAfter;
+    private final String excludedPath;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param limiter      {@link AdaptiveConcurrencyLimiter} adaptive concurrency limit
+     * @param retryAfter   {@link Duration} time client is asked to wait before retrying
+     * @param excludedPath {@link String} path prefix that is never limited, relative to base path
+     * @param objectMapper {@link ObjectMapper} writer of rejection body
+     */
+    public AdaptiveConcurrencyLimitWebFilter(final AdaptiveConcurrencyLimiter limiter,
+                                             final Duration retryAfter,
+                                             final String excludedPath,
+                                             final ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.retryAfter = retryAfter;
+        this.excludedPath = excludedPath;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull final ServerWebExchange exchange, @NonNull final WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith(excludedPath)) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire()) {
+            log.warn("Request shed, concurrency limit {} reached: {} {}",
+                    limiter.getLimit(), exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+            return reject(exchange.getResponse());
+        }
+        final long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> release(exchange.getResponse(), signal, System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void release(final ServerHttpResponse response, final SignalType signal, final long latency) {
+        final HttpStatusCode status = response.getStatusCode();
+        if (signal != SignalType.ON_COMPLETE
+                || MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType())) {
+            limiter.onIgnore();
+        } else if (status != null && (status.value() == SERVICE_UNAVAILABLE.value()
+                || status.value() == GATEWAY_TIMEOUT.value())) {
+            limiter.onDropped();
+        } else {
+            limiter.onSuccess(latency);
+        }
+    }
+
+    private Mono<Void> reject(final ServerHttpResponse response) {
+        response.setStatusCode(SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(
+                        new Response<>(SERVICE_BUSY, SERVICE_UNAVAILABLE.value())))
+                .flatMap(body -> response.writeWith(Mono.just(response.bufferFactory().wrap(body))));
+    }
+}
@@ -0,0 +1,149 @@
+package com.microservice.customer.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * concurrency limit that follows latency of served requests with additive
+ * increase and multiplicative decrease. While requests complete under the
+ * latency threshold and at least half of the limit is in use the limit
+ * grows by one, a request slower than threshold or dropped by an
+ * overloaded dependency multiplies it by backoff ratio. Requests above
+ * current limit are rejected at once so load is shed before latency
+ * collapses instead of queueing on server threads
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThreshold;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private volatile int limit;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param initialLimit     requests served at once before any latency is sampled
+     * @param minLimit         lowest limit reached by backing off
+     * @param maxLimit         highest limit reached by growing
+     * @param backoffRatio     factor limit is multiplied by on slow or dropped request
+     * @param latencyThreshold {@link Duration} latency above which a request counts as slow
+     * @param meterRegistry    {@link MeterRegistry} meter registry
+     */
+    public AdaptiveConcurrencyLimiter(final int initialLimit,
+                                      final int minLimit,
+                                      final int maxLimit,
+                                      final double backoffRatio,
+                                      final Duration latencyThreshold,
+                                      final MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limit bounds must satisfy 1 <= min-limit <= max-limit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoff-ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThreshold = latencyThreshold.toNanos();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        this.rejectedCounter = Counter.builder("customer.limiter.rejected")
+                .description("Requests shed by adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("customer.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("Requests being served under adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("customer.limiter.limit", this, limiter -> limiter.limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * take a slot when one is free, caller must hand it back with
+     * exactly one of {@link #onSuccess(long)}, {@link #onDropped()} or
+     * {@link #onIgnore()}
+     *
+     * @return true when request may be served
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * request was served, its latency decides whether limit grows or shrinks
+     *
+     * @param latency nanoseconds request was served in
+     */
+    public void onSuccess(final long latency) {
+        final int served = inFlight.getAndDecrement();
+        if (latency > latencyThreshold) {
+            backOff();
+        } else {
+            grow(served);
+        }
+    }
+
+    /**
+     * request was dropped as a dependency is overloaded, limit shrinks
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        backOff();
+    }
+
+    /**
+     * request tells nothing about load, e.g. it failed or was streamed,
+     * slot is released and limit stays
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return requests being served
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void grow(final int served) {
+        if (limit < maxLimit && served * 2 >= limit) {
+            limit = limit + 1;
+        }
+    }
+
+    private synchronized void backOff() {
+        final int next = Math.max(minLimit, (int) (limit * backoffRatio));
+        if (next < limit) {
+            log.debug("Concurrency limit lowered from {} to {}", limit, next);
+            limit = next;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.microservice.customer.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * bounds connections borrowed at once. On virtual threads every request
+ * gets its own thread so nothing but the connection pool limits database
+ * work, thousands of requests would queue inside the pool and fail on its
+ * connection timeout. Only work that takes a connection waits here, requests
+ * answered from cache never do. A borrower above the limit waits for a
+ * slot, a parked virtual thread costs little, and fails once acquire timeout
+ * passes. Slot is released when connection is closed. Wraps a pool, a
+ * lazy proxy in front of it would take slots for connections it never opens
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final int maxConnections;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param targetDataSource {@link DataSource} data source connections are borrowed from
+     * @param maxConnections   connections borrowed at once
+     * @param acquireTimeout   {@link Duration} time a borrower waits for a slot
+     * @param meterRegistry    {@link MeterRegistry} meter registry
+     */
+    public ConnectionLimitingDataSource(final DataSource targetDataSource,
+                                        final int maxConnections,
+                                        final Duration acquireTimeout,
+                                        final MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections, true);
+        this.acquireTimeout = acquireTimeout;
+        this.rejectedCounter = Counter.builder("customer.connections.rejected")
+                .description("Connection borrowers rejected after waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("customer.connections.borrowed", permits,
+                        semaphore -> maxConnections - semaphore.availablePermits())
+                .description("Connections borrowed through the limiter")
+                .register(meterRegistry);
+        Gauge.builder("customer.connections.waiting", permits, Semaphore::getQueueLength)
+                .description("Borrowers waiting for a connection slot")
+                .register(meterRegistry);
+        Gauge.builder("customer.connections.limit", permits, semaphore -> maxConnections)
+                .description("Connections borrowed at once")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (final SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (final SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * close wrapped pool, bean destruction sees this datasource instead of the pool
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable pool)
+            pool.close();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS))
+                return;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedCounter.increment();
+        log.warn("Connection rejected, {} connections borrowed", maxConnections);
+        throw new SQLTransientConnectionException(
+                "no connection slot within %d ms".formatted(acquireTimeout.toMillis()));
+    }
+
+    /**
+     * @param connection {@link Connection} borrowed connection
+     * @return {@link Connection} connection that releases its slot once closed
+     */
+    private Connection limited(final Connection connection) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (final InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true))
+                            permits.release();
+                    }
+                });
+    }
+}
@@ -0,0 +1,151 @@
+package com.microservice.customer.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * reports virtual threads pinned to their carrier thread, a virtual thread
+ * blocking inside a synchronized block or native frame keeps its carrier
+ * busy and with few carriers (one on a pod with less than a cpu) every
+ * other virtual thread stalls with it. Pinning longer than threshold is
+ * streamed from JFR in process, counted as a metric and the most recent
+ * events with their stack are served by the pinnedthreads actuator endpoint,
+ * which is not exposed by prod profile as stacks reveal internals
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@Endpoint(id = "pinnedthreads")
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+    private final int maxEvents;
+    private final Timer pinnedTimer;
+    private final Deque<PinnedEvent> recentEvents = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentCount = new AtomicInteger();
+    private volatile RecordingStream recordingStream;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param threshold     {@link Duration} shortest pinning reported
+     * @param maxEvents     recent events kept for endpoint
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     */
+    public PinnedThreadMonitor(final Duration threshold, final int maxEvents, final MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.maxEvents = maxEvents;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads stayed pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        final RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        recordingStream = stream;
+        log.info("Pinned virtual thread monitor started, threshold: {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        final RecordingStream stream = recordingStream;
+        recordingStream = null;
+        if (stream != null)
+            stream.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * @return {@link PinnedThreadReport} pinning totals and most recent events, newest first
+     */
+    @ReadOperation
+    public PinnedThreadReport report() {
+        return new PinnedThreadReport(threshold.toMillis(),
+                pinnedTimer.count(),
+                pinnedTimer.totalTime(TimeUnit.MILLISECONDS),
+                pinnedTimer.max(TimeUnit.MILLISECONDS),
+                List.copyOf(recentEvents));
+    }
+
+    private void record(final RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        final PinnedEvent pinnedEvent = new PinnedEvent(event.getStartTime(),
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : null,
+                frames(event.getStackTrace()));
+        log.warn("Virtual thread pinned for {} ms at {}", pinnedEvent.durationMillis(),
+                pinnedEvent.stackTrace().isEmpty() ? "unknown" : pinnedEvent.stackTrace().get(0));
+        recentEvents.addFirst(pinnedEvent);
+        if (recentCount.incrementAndGet() > maxEvents && recentEvents.pollLast() != null)
+            recentCount.decrementAndGet();
+    }
+
+    private List<String> frames(final RecordedStackTrace stackTrace) {
+        final List<String> frames = new ArrayList<>();
+        if (stackTrace == null)
+            return frames;
+        for (final RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames.size() == MAX_FRAMES)
+                break;
+            frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + ":" + frame.getLineNumber());
+        }
+        return frames;
+    }
+
+    /**
+     * pinning totals since startup
+     *
+     * @param thresholdMillis shortest pinning reported
+     * @param count           pinned events
+     * @param totalMillis     time spent pinned
+     * @param maxMillis       longest recent pinning
+     * @param recentEvents    {@link List} most recent events, newest first
+     */
+    public record PinnedThreadReport(long thresholdMillis,
+                                     long count,
+                                     double totalMillis,
+                                     double maxMillis,
+                                     List<PinnedEvent> recentEvents) {
+    }
+
+    /**
+     * single pinning of a virtual thread
+     *
+     * @param startTime      {@link Instant} time pinning started
+     * @param durationMillis time thread stayed pinned
+     * @param thread         {@link String} thread name, empty for unnamed virtual threads
+     * @param stackTrace     {@link List} top frames where thread blocked while pinned
+     */
+    public record PinnedEvent(Instant startTime, long durationMillis, String thread, List<String> stackTrace) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.microservice.customer.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * async request configuration used by streaming responses, long running
+ * exports are executed on application task executor and are allowed to
+ * run for configured milliseconds
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final long requestTimeout;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param taskExecutor   {@link AsyncTaskExecutor} application task executor
+     * @param requestTimeout async request timeout in milliseconds
+     */
+    public AsyncConfig(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                       final AsyncTaskExecutor taskExecutor,
+                       @Value("${customer.export.timeout:3600000}") final long requestTimeout) {
+        this.taskExecutor = taskExecutor;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer
+                .setTaskExecutor(taskExecutor)
+                .setDefaultTimeout(requestTimeout);
+    }
+}
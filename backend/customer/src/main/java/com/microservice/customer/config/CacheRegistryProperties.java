@@ -0,0 +1,174 @@
+package com.microservice.customer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * typed registry of caches bound from cache properties. Every named cache
+ * under specs overrides only the settings it sets, the rest are taken from
+ * defaults. Caches that are not listed use defaults, so a new cache needs
+ * configuration only. Time to live is in minutes and local time to live in
+ * seconds unless a unit is given e.g. 30s
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheRegistryProperties {
+
+    /**
+     * settings of every cache unless overridden by its spec
+     */
+    private Spec defaults = Spec.fallback();
+    /**
+     * settings by cache name
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+    /**
+     * version leading every redis key, bumped whenever format of cached
+     * values changes so pods of the previous release that still run
+     * during a rolling deploy never read values they can not decode.
+     * v1 is json of the first release, empty leaves keys unversioned
+     */
+    private String keyVersion = "v2";
+    private Compression compression = new Compression();
+    private Stampede stampede = new Stampede();
+
+    /**
+     * @param name {@link String} cache name
+     * @return {@link ResolvedSpec} settings of the cache with defaults applied
+     */
+    public ResolvedSpec resolve(final String name) {
+        return resolve(specs.getOrDefault(name, new Spec()));
+    }
+
+    /**
+     * @return {@link ResolvedSpec} settings of caches that are not listed
+     */
+    public ResolvedSpec resolveDefaults() {
+        return resolve(new Spec());
+    }
+
+    private ResolvedSpec resolve(final Spec spec) {
+        return new ResolvedSpec(
+                Optional.ofNullable(spec.getTimeToLive()).orElse(defaults.getTimeToLive()),
+                Optional.ofNullable(spec.getJitter()).orElse(defaults.getJitter()),
+                Optional.ofNullable(spec.getLocalMaxSize()).orElse(defaults.getLocalMaxSize()),
+                Optional.ofNullable(spec.getLocalTimeToLive()).orElse(defaults.getLocalTimeToLive()),
+                Optional.ofNullable(spec.getKeyPrefix()).orElse(defaults.getKeyPrefix()),
+                Optional.ofNullable(spec.getSerializer()).orElse(defaults.getSerializer()),
+                Optional.ofNullable(spec.getCacheNullValues()).orElse(defaults.getCacheNullValues()));
+    }
+
+    /**
+     * serializer of cached values
+     */
+    public enum Serializer {
+        /**
+         * compact binary customer, json for other values
+         */
+        COMPACT,
+        /**
+         * json with type information
+         */
+        JSON
+    }
+
+    /**
+     * settings of a cache, unset settings are taken from defaults
+     */
+    @Getter
+    @Setter
+    public static class Spec {
+        /**
+         * redis time to live
+         */
+        @DurationUnit(ChronoUnit.MINUTES)
+        private Duration timeToLive;
+        /**
+         * fraction of time to live added to it, spread by key so entries
+         * loaded together do not expire together
+         */
+        private Double jitter;
+        /**
+         * max entries of in-process tier
+         */
+        private Long localMaxSize;
+        /**
+         * in-process time to live
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration localTimeToLive;
+        /**
+         * redis key prefix after key version, cache name followed by :: when empty
+         */
+        private String keyPrefix;
+        private Serializer serializer;
+        private Boolean cacheNullValues;
+
+        private static Spec fallback() {
+            final Spec spec = new Spec();
+            spec.setTimeToLive(Duration.ofMinutes(5));
+            spec.setJitter(0.1);
+            spec.setLocalMaxSize(10_000L);
+            spec.setLocalTimeToLive(Duration.ofSeconds(60));
+            spec.setKeyPrefix("");
+            spec.setSerializer(Serializer.COMPACT);
+            spec.setCacheNullValues(false);
+            return spec;
+        }
+    }
+
+    /**
+     * settings of a cache with defaults applied
+     *
+     * @param timeToLive      {@link Duration} redis time to live
+     * @param jitter          fraction of time to live added to it
+     * @param localMaxSize    max entries of in-process tier
+     * @param localTimeToLive {@link Duration} in-process time to live
+     * @param keyPrefix       {@link String} redis key prefix, empty for default
+     * @param serializer      {@link Serializer} serializer of cached values
+     * @param cacheNullValues whether null values are cached
+     */
+    public record ResolvedSpec(Duration timeToLive,
+                               double jitter,
+                               long localMaxSize,
+                               Duration localTimeToLive,
+                               String keyPrefix,
+                               Serializer serializer,
+                               boolean cacheNullValues) {
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+        /**
+         * size in bytes above which values are deflated, 0 disables it
+         */
+        private int threshold = 512;
+    }
+
+    @Getter
+    @Setter
+    public static class Stampede {
+        /**
+         * eagerness of early refresh, 0 disables it
+         */
+        private double beta = 1.0;
+        /**
+         * time a pod holds the load lock of a key, 0 disables it
+         */
+        @DurationUnit(ChronoUnit.MILLIS)
+        private Duration lockTimeout = Duration.ofMillis(2000);
+    }
+}
@@ -0,0 +1,137 @@
+package com.microservice.customer.config;
+
+import com.microservice.customer.datasource.ReadWriteRoutingDataSource;
+import com.microservice.customer.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.microservice.customer.utils.Constants.PRIMARY_POOL;
+import static com.microservice.customer.utils.Constants.REPLICA_POOL;
+
+/**
+ * read/write split datasource, enabled once at least one replica is
+ * configured under customer.datasource.replicas. Writes and reads outside
+ * of a read only transaction go to primary pool, read only transactions
+ * are spread over replica pools. Replica pools share spring.datasource.hikari
+ * settings and fall back to primary credentials
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "customer.datasource", name = "replicas[0].url")
+public class DataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    /**
+     * replica connection details
+     *
+     * @param url      {@link String} jdbc url
+     * @param username {@link String} username, primary username when empty
+     * @param password {@link String} password, primary password when empty
+     */
+    public record Replica(String url, String username, String password) {
+    }
+
+    /**
+     * primary pool, configured exactly as spring boot does for a single datasource
+     *
+     * @param properties {@link DataSourceProperties} spring.datasource properties
+     * @return {@link HikariDataSource} primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    /**
+     * routing datasource used by jpa, wrapped lazily so connection is taken
+     * after transaction read only flag is known
+     *
+     * @param primaryDataSource {@link DataSource} primary pool, connection limited on virtual threads
+     * @param properties        {@link DataSourceProperties} spring.datasource properties
+     * @param environment       {@link Environment} replica and pool settings
+     * @param meterRegistry     {@link ObjectProvider} registry for replica pool metrics
+     * @return {@link DataSource} routing datasource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primaryDataSource,
+                                 final DataSourceProperties properties,
+                                 final Environment environment,
+                                 final ObjectProvider<MeterRegistry> meterRegistry) {
+        final Binder binder = Binder.get(environment);
+        final List<Replica> replicas = binder
+                .bind("customer.datasource.replicas", Bindable.listOf(Replica.class))
+                .orElse(List.of());
+        for (int index = 0; index < replicas.size(); index++) {
+            final Replica replica = replicas.get(index);
+            final HikariDataSource pool = DataSourceBuilder
+                    .create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username() != null ? replica.username() : properties.determineUsername())
+                    .password(replica.password() != null ? replica.password() : properties.determinePassword())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName(REPLICA_POOL.formatted(index));
+            pool.setReadOnly(true);
+            meterRegistry.ifAvailable(pool::setMetricRegistry);
+            replicaPools.add(pool);
+        }
+        log.info("Routing read only transactions to {} replica(s)", replicaPools.size());
+        final ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaPools);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * pin reads of a client to primary for sticky window after it wrote
+     *
+     * @param stickyWindow seconds reads stay on primary, should exceed replica lag
+     * @return {@link FilterRegistrationBean} read your writes filter
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${customer.datasource.sticky-window:5}") final int stickyWindow) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyWindow));
+    }
+
+    @Override
+    public void destroy() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,95 @@
+package com.microservice.customer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.concurrency.AdaptiveConcurrencyLimitFilter;
+import com.microservice.customer.concurrency.AdaptiveConcurrencyLimitWebFilter;
+import com.microservice.customer.concurrency.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * adaptive load shedding in front of every customer endpoint, on both
+ * serving modes. Limit adapts to observed latency so excess requests are
+ * answered with 503 before they pile up on server threads, endpoint
+ * bulkheads and circuit breaker guard further down the chain
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "customer.load-shedding", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    /**
+     * @param initialLimit     requests served at once before any latency is sampled
+     * @param minLimit         lowest limit reached by backing off
+     * @param maxLimit         highest limit reached by growing
+     * @param backoffRatio     factor limit is multiplied by on slow or dropped request
+     * @param latencyThreshold milliseconds above which a request counts as slow
+     * @param meterRegistry    {@link MeterRegistry} meter registry
+     * @return {@link AdaptiveConcurrencyLimiter} adaptive concurrency limit
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${customer.load-shedding.initial-limit:50}") final int initialLimit,
+            @Value("${customer.load-shedding.min-limit:10}") final int minLimit,
+            @Value("${customer.load-shedding.max-limit:200}") final int maxLimit,
+            @Value("${customer.load-shedding.backoff-ratio:0.9}") final double backoffRatio,
+            @Value("${customer.load-shedding.latency-threshold:500}") final long latencyThreshold,
+            final MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio,
+                Duration.ofMillis(latencyThreshold), meterRegistry);
+    }
+
+    /**
+     * shed load on servlet serving mode, ordered ahead of virtual thread
+     * request limit so requests waiting there are sampled as slow
+     *
+     * @param limiter      {@link AdaptiveConcurrencyLimiter} adaptive concurrency limit
+     * @param retryAfter   seconds client is asked to wait before retrying
+     * @param actuatorPath {@link String} actuator base path, never limited
+     * @param objectMapper {@link ObjectMapper} writer of rejection body
+     * @return {@link FilterRegistrationBean} adaptive concurrency limit filter
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> adaptiveConcurrencyLimitFilter(
+            final AdaptiveConcurrencyLimiter limiter,
+            @Value("${customer.load-shedding.retry-after:1}") final long retryAfter,
+            @Value("${management.endpoints.web.base-path:/actuator}") final String actuatorPath,
+            final ObjectMapper objectMapper) {
+        final FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new AdaptiveConcurrencyLimitFilter(limiter, Duration.ofSeconds(retryAfter), actuatorPath, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * shed load on reactive serving mode
+     *
+     * @param limiter      {@link AdaptiveConcurrencyLimiter} adaptive concurrency limit
+     * @param retryAfter   seconds client is asked to wait before retrying
+     * @param actuatorPath {@link String} actuator base path, never limited
+     * @param objectMapper {@link ObjectMapper} writer of rejection body
+     * @return {@link AdaptiveConcurrencyLimitWebFilter} adaptive concurrency limit web filter
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public AdaptiveConcurrencyLimitWebFilter adaptiveConcurrencyLimitWebFilter(
+            final AdaptiveConcurrencyLimiter limiter,
+            @Value("${customer.load-shedding.retry-after:1}") final long retryAfter,
+            @Value("${management.endpoints.web.base-path:/actuator}") final String actuatorPath,
+            final ObjectMapper objectMapper) {
+        return new AdaptiveConcurrencyLimitWebFilter(limiter, Duration.ofSeconds(retryAfter), actuatorPath,
+                objectMapper);
+    }
+}
@@ -0,0 +1,71 @@
+package com.microservice.customer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.helper.json.TimedJsonDecoder;
+import com.microservice.customer.helper.json.TimedJsonEncoder;
+import com.microservice.customer.helper.json.TimedJsonHttpMessageConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * per stage timers that are not published by spring boot itself. Http
+ * requests, repository invocations, connection pools and redis commands
+ * are timed by spring boot, caches time their redis tier and customer
+ * mapper is decorated, see {@link com.microservice.customer.mapper.TimedCustomerMapper}.
+ * Json serialization is timed here on both serving modes
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * replaces json converter of spring mvc keeping its object mapper.
+     * Converters are replaced in place since web mvc is configured
+     * explicitly and converter beans are not picked up
+     *
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     * @return {@link WebMvcConfigurer} timed json converter
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WebMvcConfigurer timedJsonConverterConfigurer(final MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(@NonNull final List<HttpMessageConverter<?>> converters) {
+                converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                        ? new TimedJsonHttpMessageConverter(
+                        ((MappingJackson2HttpMessageConverter) converter).getObjectMapper(), meterRegistry)
+                        : converter);
+            }
+        };
+    }
+
+    /**
+     * replaces json codecs of spring boot, applied after its own
+     * customizer so same object mapper is used
+     *
+     * @param objectMapper  {@link ObjectMapper} application object mapper
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     * @return {@link CodecCustomizer} timed json codecs
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer timedJsonCodecCustomizer(final ObjectMapper objectMapper,
+                                                    final MeterRegistry meterRegistry) {
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(new TimedJsonEncoder(objectMapper, meterRegistry));
+            configurer.defaultCodecs().jackson2JsonDecoder(new TimedJsonDecoder(objectMapper, meterRegistry));
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.microservice.customer.config;
+
+import com.microservice.customer.cache.CacheInvalidationPublisher;
+import com.microservice.customer.cache.ReactiveCacheGeneration;
+import com.microservice.customer.cache.ReactiveRedisCacheManager;
+import com.microservice.customer.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_PAGE_GENERATION;
+
+/**
+ * reactive serving mode, active with reactive profile which switches web
+ * application type to reactive. Requests are served on netty event loop
+ * by non blocking controller, database is reached through r2dbc and redis
+ * through reactive lettuce commands. Caches are the redis caches of
+ * {@link RedisConfig} so both modes can serve the same data side by side
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    /**
+     * netty is chosen explicitly as tomcat is on classpath for servlet
+     * mode and would otherwise be preferred
+     *
+     * @return {@link NettyReactiveWebServerFactory}
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * non blocking access of caches registered in cache manager
+     *
+     * @param cacheManager          {@link TwoTierCacheManager} cache manager
+     * @param connectionFactory     {@link ReactiveRedisConnectionFactory} reactive redis connection factory
+     * @param redisTemplate         {@link ReactiveStringRedisTemplate} reactive redis template
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} cross pod invalidation publisher
+     * @param meterRegistry         {@link MeterRegistry} registry of redis tier timers
+     * @return {@link ReactiveRedisCacheManager}
+     */
+    @Bean
+    public ReactiveRedisCacheManager reactiveRedisCacheManager(final TwoTierCacheManager cacheManager,
+                                                               final ReactiveRedisConnectionFactory connectionFactory,
+                                                               final ReactiveStringRedisTemplate redisTemplate,
+                                                               final CacheInvalidationPublisher invalidationPublisher,
+                                                               final MeterRegistry meterRegistry) {
+        return new ReactiveRedisCacheManager(cacheManager, connectionFactory, redisTemplate, invalidationPublisher,
+                meterRegistry);
+    }
+
+    /**
+     * generation of customer page cache, same counter blocking pods bump
+     *
+     * @param redisTemplate {@link ReactiveStringRedisTemplate} reactive redis template
+     * @return {@link ReactiveCacheGeneration}
+     */
+    @Bean
+    public ReactiveCacheGeneration reactiveCustomerPageGeneration(final ReactiveStringRedisTemplate redisTemplate) {
+        return new ReactiveCacheGeneration(redisTemplate, CACHE_CUSTOMER_PAGE_GENERATION);
+    }
+
+    /**
+     * resolve page, size and sort request parameters the same way
+     * spring data web support does for servlet mode
+     *
+     * @param configurer {@link ArgumentResolverConfigurer} argument resolver configurer
+     */
+    @Override
+    public void configureArgumentResolvers(final ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver(),
+                new ReactiveSortHandlerMethodArgumentResolver());
+    }
+
+    @Override
+    public void addCorsMappings(final CorsRegistry registry) {
+        registry
+                .addMapping("/**")
+                .allowedOrigins("*")
+                .allowedMethods(
+                        HttpMethod.PUT.name(),
+                        HttpMethod.POST.name(),
+                        HttpMethod.GET.name(),
+                        HttpMethod.DELETE.name(),
+                        HttpMethod.OPTIONS.name()
+                )
+                .exposedHeaders(HttpHeaders.ETAG);
+    }
+}
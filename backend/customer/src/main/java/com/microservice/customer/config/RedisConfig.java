@@ -1,19 +1,36 @@
 package com.microservice.customer.config;
 
 
+import com.microservice.customer.cache.CacheGeneration;
+import com.microservice.customer.cache.CacheInvalidationListener;
+import com.microservice.customer.cache.CacheInvalidationPublisher;
+import com.microservice.customer.cache.CompactRedisSerializer;
+import com.microservice.customer.cache.JitteredTtlFunction;
+import com.microservice.customer.cache.TwoTierCacheManager;
+import com.microservice.customer.cache.TwoTierCacheMeterBinderProvider;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
-import java.time.Duration;
-
-import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_PAGE_GENERATION;
+import static com.microservice.customer.utils.Constants.CACHE_INVALIDATION_CHANNEL;
 
 /**
  * This class resides redis configuration
@@ -22,6 +39,7 @@ import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
  * @since 2024
  */
 @Configuration
+@EnableConfigurationProperties(CacheRegistryProperties.class)
 public class RedisConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
@@ -29,58 +47,156 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    @Value("${cache.app.time-to-live:10}")
-    private int customerTTL;
-    @Value("${cache.default.time-to-live:5}")
-    private int defaultTTL;
+    private final CacheRegistryProperties cacheRegistry;
+    private final ClientResources clientResources;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param cacheRegistry   {@link CacheRegistryProperties} settings of every cache
+     * @param clientResources {@link ClientResources} lettuce resources recording command latency
+     * @param meterRegistry   {@link MeterRegistry} registry of redis tier timers
+     */
+    public RedisConfig(final CacheRegistryProperties cacheRegistry,
+                       final ClientResources clientResources,
+                       final MeterRegistry meterRegistry) {
+        this.cacheRegistry = cacheRegistry;
+        this.clientResources = clientResources;
+        this.meterRegistry = meterRegistry;
+    }
 
     /**
      * create default redis connection factory that will be used
-     * within different cache manager
+     * within different cache manager, client resources of spring boot
+     * are shared so latency of every redis command is published
      *
      * @return {@link LettuceConnectionFactory}
      */
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
         final RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(redisHost, redisPort);
-        return new LettuceConnectionFactory(configuration);
+        return new LettuceConnectionFactory(configuration, LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build());
+    }
+
+    /**
+     * configure caches from cache registry, every cache listed in
+     * registry gets its own time to live, jitter, key prefix, serializer
+     * and null value policy, the rest use registry defaults. Every redis
+     * cache is fronted by an in-process cache bounded by size and time
+     * to live of its spec. Cache statistics are enabled so hit/miss ratio
+     * of both tiers is published through actuator metrics, the collector
+     * is shared with two tier caches so their pipelined redis reads are
+     * counted as well. Loads of a key
+     * are coalesced, refreshed early and guarded by a redis lock
+     *
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} cross pod invalidation publisher
+     * @return {@link TwoTierCacheManager}
+     */
+    @Bean
+    public TwoTierCacheManager cacheManager(final CacheInvalidationPublisher invalidationPublisher) {
+        final CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+        final RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory())
+                        .withStatisticsCollector(statistics))
+                .cacheDefaults(myDefaultCacheConfig(cacheRegistry.resolveDefaults()));
+        cacheRegistry.getSpecs().keySet().forEach(name ->
+                builder.withCacheConfiguration(name, myDefaultCacheConfig(cacheRegistry.resolve(name))));
+        final RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoTierCacheManager(redisCacheManager,
+                invalidationPublisher,
+                redisConnectionFactory(),
+                statistics,
+                cacheRegistry,
+                meterRegistry);
+    }
+
+    /**
+     * publisher of near cache invalidation messages
+     *
+     * @param redisTemplate {@link StringRedisTemplate} redis template
+     * @return {@link CacheInvalidationPublisher}
+     */
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(final StringRedisTemplate redisTemplate) {
+        return new CacheInvalidationPublisher(redisTemplate);
+    }
+
+    /**
+     * generation of customer page cache, bumped by every customer change
+     *
+     * @param redisTemplate {@link StringRedisTemplate} redis template
+     * @return {@link CacheGeneration}
+     */
+    @Bean
+    public CacheGeneration customerPageGeneration(final StringRedisTemplate redisTemplate) {
+        return new CacheGeneration(redisTemplate, CACHE_CUSTOMER_PAGE_GENERATION);
+    }
+
+    /**
+     * subscribe to near cache invalidation channel so entries changed
+     * by other pods are dropped from in-process cache
+     *
+     * @param connectionFactory     {@link RedisConnectionFactory} redis connection factory
+     * @param cacheManager          {@link TwoTierCacheManager} cache manager
+     * @param invalidationPublisher {@link CacheInvalidationPublisher} publisher of this pod
+     * @return {@link RedisMessageListenerContainer}
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            final RedisConnectionFactory connectionFactory,
+            final TwoTierCacheManager cacheManager,
+            final CacheInvalidationPublisher invalidationPublisher) {
+        final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, invalidationPublisher),
+                new ChannelTopic(CACHE_INVALIDATION_CHANNEL));
+        return container;
     }
 
     /**
-     * configure different types of cache, here payment is cached
-     * with payment time to live
+     * metrics of in-process and redis tier
      *
-     * @return {@link RedisCacheManager}
+     * @return {@link TwoTierCacheMeterBinderProvider}
      */
     @Bean
-    public RedisCacheManager cacheManager() {
-        final RedisCacheConfiguration cacheConfig = myDefaultCacheConfig(Duration.ofMinutes(defaultTTL))
-                .disableCachingNullValues();
-        return RedisCacheManager
-                .builder(redisConnectionFactory())
-                .cacheDefaults(cacheConfig)
-                .withCacheConfiguration(
-                        CACHE_CUSTOMER,
-                        myDefaultCacheConfig(Duration.ofMinutes(customerTTL))
-                )
-                .build();
+    public TwoTierCacheMeterBinderProvider twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMeterBinderProvider();
     }
 
     /**
-     * create default cache configuration that will be used by
-     * different cache manager
+     * create cache configuration of a cache spec, time to live is
+     * extended by a key derived jitter. Customer's are stored in compact
+     * binary form unless json is configured and values larger than
+     * compression threshold are deflated. Keys start with key version of
+     * registry, so a release that changes value format does not share
+     * keys with the release it replaces
      *
-     * @param duration {@link Duration} minutes
+     * @param spec {@link CacheRegistryProperties.ResolvedSpec} cache settings
      * @return {@link RedisCacheConfiguration} configuration
      */
-    private RedisCacheConfiguration myDefaultCacheConfig(final Duration duration) {
-        return RedisCacheConfiguration
+    private RedisCacheConfiguration myDefaultCacheConfig(final CacheRegistryProperties.ResolvedSpec spec) {
+        final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        RedisCacheConfiguration configuration = RedisCacheConfiguration
                 .defaultCacheConfig()
-                .entryTtl(duration)
+                .entryTtl(new JitteredTtlFunction(spec.timeToLive(), spec.jitter()))
                 .serializeValuesWith(RedisSerializationContext
                         .SerializationPair
-                        .fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()
+                        .fromSerializer(spec.serializer() == CacheRegistryProperties.Serializer.JSON
+                                ? jsonSerializer
+                                : new CompactRedisSerializer(jsonSerializer,
+                                cacheRegistry.getCompression().getThreshold())
                         ));
+        final String keyVersion = StringUtils.isNotEmpty(cacheRegistry.getKeyVersion())
+                ? cacheRegistry.getKeyVersion() + ":"
+                : "";
+        configuration = configuration.computePrefixWith(cacheName -> keyVersion
+                + (StringUtils.isNotEmpty(spec.keyPrefix()) ? spec.keyPrefix() : cacheName + "::"));
+        if (!spec.cacheNullValues())
+            configuration = configuration.disableCachingNullValues();
+        return configuration;
     }
-}
\ No newline at end of file
+}
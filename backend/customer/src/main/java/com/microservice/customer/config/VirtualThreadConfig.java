@@ -0,0 +1,93 @@
+package com.microservice.customer.config;
+
+import com.microservice.customer.concurrency.ConnectionLimitingDataSource;
+import com.microservice.customer.concurrency.PinnedThreadMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+
+/**
+ * guardrails of virtual thread serving mode, active when
+ * spring.threads.virtual.enabled is set and application runs on java 21
+ * or later. Requests are no longer bounded by a tomcat thread pool so
+ * connections borrowed from primary connection pool are bounded by a
+ * limiter sized to it, and pinned virtual threads are reported
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final String DATA_SOURCE = "dataSource";
+    private static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+
+    /**
+     * limit connections borrowed at once from primary connection pool,
+     * limit defaults to maximum size of the pool so database work waits in
+     * the limiter rather than for a connection. Pool is wrapped itself, the
+     * single datasource or primary pool of read/write routing, so lazy
+     * connection proxies take a slot only once they open a connection and
+     * replica pools are bounded by their own size. Requests answered from
+     * cache are bounded by adaptive load shedding alone
+     *
+     * @param environment   {@link Environment} connection limit settings
+     * @param meterRegistry {@link ObjectProvider} meter registry
+     * @return {@link BeanPostProcessor} wrapper of primary connection pool
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            final Environment environment,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull final Object bean, @NonNull final String beanName) {
+                if (!(bean instanceof HikariDataSource pool)
+                        || !(DATA_SOURCE.equals(beanName) || PRIMARY_DATA_SOURCE.equals(beanName)))
+                    return bean;
+                final int maxConnections = environment.getProperty(
+                        "customer.connection-limit.max-connections", Integer.class, 0);
+                final long acquireTimeout = environment.getProperty(
+                        "customer.connection-limit.acquire-timeout", Long.class, 2000L);
+                final int limit = maxConnections > 0 ? maxConnections : pool.getMaximumPoolSize();
+                log.info("Virtual threads enabled, connections borrowed at once from primary: {}", limit);
+                return new ConnectionLimitingDataSource(pool,
+                        limit,
+                        Duration.ofMillis(acquireTimeout),
+                        meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+            }
+        };
+    }
+
+    /**
+     * report virtual threads pinned longer than threshold
+     *
+     * @param threshold     milliseconds of shortest pinning reported
+     * @param maxEvents     recent events kept for actuator endpoint
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     * @return {@link PinnedThreadMonitor} pinned thread monitor
+     */
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${customer.pinned-threads.threshold:20}") final long threshold,
+            @Value("${customer.pinned-threads.max-events:50}") final int maxEvents,
+            final MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(Duration.ofMillis(threshold), maxEvents, meterRegistry);
+    }
+}
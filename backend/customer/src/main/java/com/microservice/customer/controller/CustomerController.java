@@ -1,12 +1,21 @@
 package com.microservice.customer.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.dto.BatchResult;
 import com.microservice.customer.dto.CustomerDTO;
 import com.microservice.customer.dto.Response;
 import com.microservice.customer.dto.ResponsePager;
+import com.microservice.customer.dto.TotalCount;
 import com.microservice.customer.exception.DuplicateException;
 import com.microservice.customer.exception.GenericException;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
 import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.exception.PreconditionRequiredException;
+import com.microservice.customer.helper.etag.VersionTag;
+import com.microservice.customer.helper.pagination.KeysetCursor;
 import com.microservice.customer.service.CustomerService;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,10 +26,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,21 +41,44 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
-import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.BULKHEAD_ADD;
+import static com.microservice.customer.utils.Constants.BULKHEAD_BATCH;
+import static com.microservice.customer.utils.Constants.BULKHEAD_DELETE;
+import static com.microservice.customer.utils.Constants.BULKHEAD_GET;
+import static com.microservice.customer.utils.Constants.BULKHEAD_LOOKUP;
+import static com.microservice.customer.utils.Constants.BULKHEAD_PAGE;
+import static com.microservice.customer.utils.Constants.BULKHEAD_UPDATE;
 import static com.microservice.customer.utils.Constants.CUSTOMER_SERVICE;
+import static com.microservice.customer.utils.Constants.IDEMPOTENCY_KEY;
 import static com.microservice.customer.utils.Constants.REQUIRE_ID;
 import static com.microservice.customer.utils.Constants.SUCCESS_DELETE;
+import static com.microservice.customer.utils.Constants.VERSION_REQUIRED;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 /**
  * apis related to customer
@@ -52,15 +88,23 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
  */
 @Log4j2
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping(path = "customer", produces = APPLICATION_JSON_VALUE)
 public class CustomerController {
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${customer.concurrency.require-if-match:false}")
+    private boolean requireIfMatch;
 
     /**
-     * add customer api
+     * add customer api, customer with same email is returned as is.
+     * Retries carrying same idempotency key are answered with the
+     * result of first request, a key reused with another body is rejected
      *
-     * @param customerDTO {@link CustomerDTO} customer dto request body
+     * @param customerDTO    {@link CustomerDTO} customer dto request body
+     * @param idempotencyKey {@link String} client generated request key, optional
      * @return {@link CustomerDTO} customer dto with id populated
      */
     @Operation(summary = "add customer")
@@ -81,6 +125,20 @@ public class CustomerController {
                                                     """
                                     )
                             })),
+            @ApiResponse(responseCode = "422",
+                    content = @Content(
+                            schema = @Schema(implementation = Response.class),
+                            examples = {
+                                    @ExampleObject(name = "add customer",
+                                            summary = "Adding customer with an idempotency key already used for another customer",
+                                            value = """
+                                                        {
+                                                            "statusCode": 422,
+                                                            "content": "Idempotency-Key was already used with a different request"
+                                                        }
+                                                    """
+                                    )
+                            })),
             @ApiResponse(responseCode = "500",
                     content = @Content(
                             schema = @Schema(implementation = Response.class),
@@ -98,10 +156,13 @@ public class CustomerController {
     })
     @PostMapping
     @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
-    public ResponseEntity<Response<?>> addCustomer(@Valid @RequestBody final CustomerDTO customerDTO) {
+    @Bulkhead(name = BULKHEAD_ADD)
+    public ResponseEntity<Response<?>> addCustomer(
+            @Valid @RequestBody final CustomerDTO customerDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) final String idempotencyKey) {
         try {
             log.info("Add customer api initiated");
-            final CustomerDTO responseDTO = customerService.add(customerDTO);
+            final CustomerDTO responseDTO = customerService.add(customerDTO, idempotencyKey);
             log.info("Add customer api completed");
             return ResponseEntity
                     .status(CREATED)
@@ -111,15 +172,82 @@ public class CustomerController {
             return ResponseEntity
                     .status(BAD_REQUEST)
                     .body(new Response<>(e.getMessage(), BAD_REQUEST.value()));
+        } catch (final IdempotencyKeyReusedException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(UNPROCESSABLE_ENTITY)
+                    .body(new Response<>(e.getMessage(), UNPROCESSABLE_ENTITY.value()));
         }
     }
 
+    /**
+     * add customer's in bulk api, every item gets its own result so
+     * a batch is never rejected because of a single invalid item
+     *
+     * @param customerDTOs {@link List} customer dto request body
+     * @return {@link BatchResult} result of each item in request order
+     */
+    @Operation(summary = "add customer's in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = Response.class))),
+            @ApiResponse(responseCode = "400",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(name = "add customers",
+                                            summary = "Adding customers more than allowed batch size",
+                                            value = """
+                                                        {
+                                                            "statusCode": 400,
+                                                            "content": "batch cannot contain more than 1000 customers"
+                                                        }
+                                                    """
+                                    )
+                            })),
+            @ApiResponse(responseCode = "500",
+                    content = @Content(
+                            schema = @Schema(implementation = Response.class),
+                            examples = {
+                                    @ExampleObject(name = "add customers",
+                                            summary = "When adding customers and occurs unexpected error",
+                                            value = """
+                                                        {
+                                                            "statusCode": 500,
+                                                            "content": "Unknown error occurred please try again later"
+                                                        }
+                                                    """
+                                    )
+                            }))
+    })
+    @PostMapping("/batch")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_BATCH)
+    public ResponseEntity<Response<?>> addCustomers(@RequestBody final List<CustomerDTO> customerDTOs) {
+        try {
+            log.info("Add customers api initiated: {}", customerDTOs.size());
+            final List<BatchResult> results = customerService.addAll(customerDTOs);
+            log.info("Add customers api completed");
+            return ResponseEntity
+                    .status(OK)
+                    .body(new Response<>(results, OK.value()));
+        } catch (final GenericException | IllegalArgumentException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(BAD_REQUEST)
+                    .body(new Response<>(e.getMessage(), BAD_REQUEST.value()));
+        }
+    }
 
     /**
-     * update customer record api
+     * update customer record api, when If-Match carries the entity tag of
+     * a previous response the update is applied only if customer was not
+     * changed since. Entity tag of updated customer is returned whether
+     * If-Match was sent or not
      *
      * @param id          {@link String} customer id
      * @param customerDTO {@link CustomerDTO} updated customer dto object
+     * @param ifMatch     {@link String} entity tag client holds, optional unless required by configuration
      */
     @Operation(summary = "update customer's information")
     @ApiResponses(value = {
@@ -170,6 +298,21 @@ public class CustomerController {
                                                     """
                                     )
                             })),
+            @ApiResponse(responseCode = "412",
+                    content = @Content(
+                            schema = @Schema(implementation = Response.class),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "updateCustomer",
+                                            summary = "Updating customer that was changed after the version in If-Match",
+                                            value = """
+                                                        {
+                                                            "statusCode": 412,
+                                                            "content": "customer was changed by another request"
+                                                        }
+                                                    """
+                                    )
+                            })),
             @ApiResponse(responseCode = "500",
                     content = @Content(
                             schema = @Schema(implementation = Response.class),
@@ -186,18 +329,23 @@ public class CustomerController {
                             }))
     })
     @PutMapping("/{id}")
-    @CachePut(value = CACHE_CUSTOMER, key = "#id")
     @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_UPDATE)
     public ResponseEntity<Response<?>> update(@PathVariable("id") final String id,
-                                              @Valid @RequestBody final CustomerDTO customerDTO) {
+                                              @Valid @RequestBody final CustomerDTO customerDTO,
+                                              @RequestHeader(name = IF_MATCH, required = false) final String ifMatch) {
 
         try {
             log.info("Update customer api initiated: {}", id);
             Objects.requireNonNull(id, REQUIRE_ID);
-            final CustomerDTO responseDTO = customerService.update(id, customerDTO);
+            if (ifMatch == null && requireIfMatch)
+                throw new PreconditionRequiredException(VERSION_REQUIRED);
+            final Long version = ifMatch != null ? VersionTag.parse(ifMatch) : null;
+            final CustomerDTO responseDTO = customerService.update(id, customerDTO, version);
             log.info("Update customer api completed: {}", id);
             return ResponseEntity
                     .status(OK)
+                    .eTag(VersionTag.of(responseDTO.getVersion()))
                     .body(new Response<>(responseDTO, OK.value()));
         } catch (final GenericException | IllegalArgumentException e) {
             log.error("Error occurred: {}", e.getMessage());
@@ -214,11 +362,24 @@ public class CustomerController {
             return ResponseEntity
                     .status(NOT_FOUND)
                     .body(new Response<>(e.getMessage(), NOT_FOUND.value()));
+        } catch (final PreconditionFailedException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(PRECONDITION_FAILED)
+                    .body(new Response<>(e.getMessage(), PRECONDITION_FAILED.value()));
+        } catch (final PreconditionRequiredException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(PRECONDITION_REQUIRED)
+                    .body(new Response<>(e.getMessage(), PRECONDITION_REQUIRED.value()));
         }
     }
 
     /**
-     * retrieve customer information api
+     * retrieve customer information api, version of customer is
+     * returned as strong entity tag to be used in If-Match of update.
+     * Requests with a matching If-None-Match are answered with 304 and
+     * no body, customer is served from cache so no database is involved
      *
      * @param id {@link String} customer id
      * @return {@link CustomerDTO} customer dto object
@@ -273,8 +434,8 @@ public class CustomerController {
                             }))
     })
     @GetMapping("/{id}")
-    @CachePut(value = CACHE_CUSTOMER, key = "#id")
     @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_GET)
     public ResponseEntity<Response<?>> get(@PathVariable("id") final String id) {
         try {
             log.info("Get customer initiated: {}", id);
@@ -283,6 +444,8 @@ public class CustomerController {
             log.info("Get customer completed: {}", id);
             return ResponseEntity
                     .status(OK)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(VersionTag.of(responseDTO.getVersion()))
                     .body(new Response<>(responseDTO, OK.value()));
         } catch (final GenericException e) {
             log.error("Error occurred: {}", e.getMessage());
@@ -359,8 +522,8 @@ public class CustomerController {
                             }))
     })
     @DeleteMapping("/{id}")
-    @CacheEvict(value = CACHE_CUSTOMER, key = "#id", allEntries = true)
     @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_DELETE)
     public ResponseEntity<Response<?>> delete(@PathVariable("id") final String id) {
         try {
             log.info("Delete customer initiated: {}", id);
@@ -383,22 +546,118 @@ public class CustomerController {
         }
     }
 
+    /**
+     * retrieve many customer's in a single call, cached customer's are
+     * read in bulk and the rest are loaded with a single query. Ids that
+     * do not exist are absent from the result
+     *
+     * @param ids {@link Set} customer ids
+     * @return {@link Map} customer dto object by id
+     */
+    @Operation(summary = "get customer's information in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = Response.class))),
+            @ApiResponse(responseCode = "400",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(name = "lookupCustomers",
+                                            summary = "Lookup more customers than allowed lookup size",
+                                            value = """
+                                                        {
+                                                            "statusCode": 400,
+                                                            "content": "lookup cannot contain more than 1000 ids"
+                                                        }
+                                                    """
+                                    )
+                            })),
+            @ApiResponse(responseCode = "500",
+                    content = @Content(
+                            schema = @Schema(implementation = Response.class),
+                            examples = {
+                                    @ExampleObject(name = "lookupCustomers",
+                                            summary = "When retrieving customers and unexpected error occurs",
+                                            value = """
+                                                        {
+                                                            "statusCode": 500,
+                                                            "content": "Unknown error occurred please try again later"
+                                                        }
+                                                    """
+                                    )
+                            }))
+    })
+    @PostMapping("/lookup")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_LOOKUP)
+    public ResponseEntity<Response<?>> lookup(@RequestBody final Set<String> ids) {
+        try {
+            log.info("Lookup customers api initiated: {}", ids.size());
+            final Map<String, CustomerDTO> customers = customerService.lookup(ids);
+            log.info("Lookup customers api completed: {}", customers.size());
+            return ResponseEntity
+                    .status(OK)
+                    .body(new Response<>(customers, OK.value()));
+        } catch (final GenericException | IllegalArgumentException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(BAD_REQUEST)
+                    .body(new Response<>(e.getMessage(), BAD_REQUEST.value()));
+        }
+    }
 
+    /**
+     * retrieve customer's with page number pagination, total records are
+     * counted exactly by default, estimated from table statistics or
+     * skipped when only next page existence is needed. Page is tagged
+     * with a weak entity tag, matching If-None-Match is answered with 304
+     *
+     * @param total       {@link String} total count mode exact, estimated or none
+     * @param pageRequest {@link Pageable} page number, size and sort
+     * @return {@link ResponsePager} customer's with pagination properties
+     */
+    @Operation(summary = "get customer's with page pagination")
     @GetMapping("/all")
-    public ResponseEntity<?> getAllCustomers(final Pageable pageRequest) {
+    @Bulkhead(name = BULKHEAD_PAGE)
+    public ResponseEntity<?> getAllCustomers(@RequestParam(name = "total", defaultValue = "exact") final String total,
+                                             final Pageable pageRequest) {
         try {
-            log.info("Search customer with pagination initiated: {}", pageRequest);
-            final Page<CustomerDTO> pageCustomers = customerService.getAll(pageRequest);
-            final ResponsePager<?> responsePage = new ResponsePager<>(pageCustomers.getContent(),
-                    pageCustomers.getNumber(),
-                    pageCustomers.getTotalElements(),
-                    pageCustomers.getTotalPages()
-            );
+            log.info("Search customer with pagination initiated: {}, total: {}", pageRequest, total);
+            final TotalCount totalCount = TotalCount.of(total);
+            final ResponsePager<CustomerDTO> responsePage;
+            if (totalCount == TotalCount.EXACT) {
+                final Page<CustomerDTO> pageCustomers = customerService.getAll(pageRequest);
+                responsePage = new ResponsePager<>(pageCustomers.getContent(),
+                        pageCustomers.getNumber(),
+                        pageCustomers.getTotalElements(),
+                        pageCustomers.getTotalPages(),
+                        false,
+                        pageCustomers.hasNext(),
+                        null
+                );
+            } else {
+                final Slice<CustomerDTO> sliceCustomers = customerService.getAllSlice(pageRequest);
+                final Long totalRecords = totalCount == TotalCount.ESTIMATED
+                        ? customerService.getEstimatedTotal()
+                        : null;
+                responsePage = new ResponsePager<>(sliceCustomers.getContent(),
+                        sliceCustomers.getNumber(),
+                        totalRecords,
+                        totalRecords != null
+                                ? (int) Math.ceil((double) totalRecords / sliceCustomers.getSize())
+                                : null,
+                        totalRecords != null ? true : null,
+                        sliceCustomers.hasNext(),
+                        null
+                );
+            }
             log.info("Search customer with pagination completed");
             return ResponseEntity
                     .status(OK)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(VersionTag.of(responsePage))
                     .body(responsePage);
-        } catch (final GenericException e) {
+        } catch (final GenericException | IllegalArgumentException e) {
             log.error("Error occurred: {}", e.getMessage());
             return ResponseEntity
                     .status(BAD_REQUEST)
@@ -411,32 +670,144 @@ public class CustomerController {
         }
     }
 
+    /**
+     * retrieve customer's with keyset pagination, every page costs the same
+     * regardless of its depth. First page is requested with an empty cursor
+     * and following pages with the next cursor of previous response.
+     * Page is tagged with a weak entity tag, matching If-None-Match is
+     * answered with 304
+     *
+     * @param cursor      {@link String} continuation token of previous page
+     * @param pageRequest {@link Pageable} page size and sort, page number is ignored
+     * @return {@link ResponsePager} customer's with next cursor
+     */
+    @Operation(summary = "get customer's with cursor pagination")
+    @GetMapping(value = "/all", params = "cursor")
+    @Bulkhead(name = BULKHEAD_PAGE)
+    public ResponseEntity<?> getAllCustomersByCursor(@RequestParam("cursor") final String cursor,
+                                                     final Pageable pageRequest) {
+        try {
+            log.info("Search customer with cursor initiated: {}", pageRequest);
+            final Window<CustomerDTO> windowCustomers = customerService.scroll(
+                    KeysetCursor.decode(cursor),
+                    pageRequest.getSort(),
+                    pageRequest.getPageSize());
+            final ResponsePager<CustomerDTO> responsePage = new ResponsePager<>(windowCustomers.getContent(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    windowCustomers.hasNext(),
+                    windowCustomers.hasNext()
+                            ? KeysetCursor.encode(windowCustomers.positionAt(windowCustomers.size() - 1))
+                            : null
+            );
+            log.info("Search customer with cursor completed");
+            return ResponseEntity
+                    .status(OK)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(VersionTag.of(responsePage))
+                    .body(responsePage);
+        } catch (final GenericException | IllegalArgumentException e) {
+            log.error("Error occurred: {}", e.getMessage());
+            return ResponseEntity
+                    .status(BAD_REQUEST)
+                    .body(new Response<>(e.getMessage(), BAD_REQUEST.value()));
+        }
+    }
+
+    /**
+     * export every customer as newline delimited json, rows are written
+     * while they are read from database in a single pass so the whole
+     * table is never held in memory
+     *
+     * @return {@link StreamingResponseBody} customer per line
+     */
+    @Operation(summary = "export all customer's as newline delimited json")
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.info("Export customer initiated");
+        final StreamingResponseBody body = outputStream -> {
+            final OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                customerService.export(customerDTO -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(customerDTO));
+                        out.write('\n');
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            log.info("Export customer completed");
+        };
+        return ResponseEntity
+                .status(OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * circuit breaker to avoid error calls for adding customer
      *
-     * @param customerDTO {@link CustomerDTO} customer payload
-     * @param e           {@link Throwable} unexpected exception
+     * @param customerDTO    {@link CustomerDTO} customer payload
+     * @param idempotencyKey {@link String} client generated request key
+     * @param e              {@link Throwable} unexpected exception
      * @return {@link ResponseEntity} response entity with 503 error code
      * @throws Throwable {@link Throwable} exception during process
      */
     private ResponseEntity<Response<?>> serviceUnavailable(final CustomerDTO customerDTO,
+                                                           final String idempotencyKey,
                                                            final Throwable e) throws Throwable {
         log.error("Could not process customer, email: {}, error: {}",
                 customerDTO.getEmail(), e.getMessage());
         throw e;
     }
 
+    /**
+     * circuit breaker to avoid error calls for adding customer's in bulk
+     *
+     * @param customerDTOs {@link List} customer payloads
+     * @param e            {@link Throwable} unexpected exception
+     * @return {@link ResponseEntity} response entity with 503 error code
+     * @throws Throwable {@link Throwable} exception during process
+     */
+    private ResponseEntity<Response<?>> serviceUnavailable(final List<CustomerDTO> customerDTOs,
+                                                           final Throwable e) throws Throwable {
+        log.error("Could not process customers, size: {}, error: {}", customerDTOs.size(), e.getMessage());
+        throw e;
+    }
+
+    /**
+     * circuit breaker to avoid error calls for retrieving customer's in bulk
+     *
+     * @param ids {@link Set} customer ids
+     * @param e   {@link Throwable} unexpected exception
+     * @return {@link ResponseEntity} response entity with 503 error code
+     * @throws Throwable {@link Throwable} exception during process
+     */
+    private ResponseEntity<Response<?>> serviceUnavailable(final Set<String> ids,
+                                                           final Throwable e) throws Throwable {
+        log.error("Could not lookup customers, size: {}, error: {}", ids.size(), e.getMessage());
+        throw e;
+    }
+
     /**
      * circuit breaker to avoid error calls for updating customer
      *
      * @param id          {@link String} customer id
      * @param customerDTO {@link CustomerDTO} customer payload
+     * @param ifMatch     {@link String} entity tag client holds
      * @param e           {@link Throwable} unexpected exception
      * @return {@link ResponseEntity} response entity with 503 error code
      * @throws Throwable {@link Throwable} exception during process
      */
     private ResponseEntity<Response<?>> serviceUnavailable(final String id,
                                                            final CustomerDTO customerDTO,
+                                                           final String ifMatch,
                                                            final Throwable e) throws Throwable {
         log.error("Could not process customer, id: {}, error: {}", id, e.getMessage());
         throw e;
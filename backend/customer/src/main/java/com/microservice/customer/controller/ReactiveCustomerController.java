@@ -0,0 +1,454 @@
+package com.microservice.customer.controller;
+
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.Response;
+import com.microservice.customer.dto.ResponsePager;
+import com.microservice.customer.dto.TotalCount;
+import com.microservice.customer.exception.DuplicateException;
+import com.microservice.customer.exception.GenericException;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
+import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.exception.PreconditionRequiredException;
+import com.microservice.customer.helper.etag.VersionTag;
+import com.microservice.customer.helper.pagination.KeysetCursor;
+import com.microservice.customer.service.ReactiveCustomerService;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.microservice.customer.utils.Constants.BULKHEAD_ADD;
+import static com.microservice.customer.utils.Constants.BULKHEAD_BATCH;
+import static com.microservice.customer.utils.Constants.BULKHEAD_DELETE;
+import static com.microservice.customer.utils.Constants.BULKHEAD_GET;
+import static com.microservice.customer.utils.Constants.BULKHEAD_LOOKUP;
+import static com.microservice.customer.utils.Constants.BULKHEAD_PAGE;
+import static com.microservice.customer.utils.Constants.BULKHEAD_UPDATE;
+import static com.microservice.customer.utils.Constants.CUSTOMER_SERVICE;
+import static com.microservice.customer.utils.Constants.IDEMPOTENCY_KEY;
+import static com.microservice.customer.utils.Constants.REQUIRE_ID;
+import static com.microservice.customer.utils.Constants.SUCCESS_DELETE;
+import static com.microservice.customer.utils.Constants.VERSION_REQUIRED;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * apis related to customer on reactive serving mode, paths, payloads,
+ * status codes and entity tags are the same as {@link CustomerController}
+ * so clients can not tell which mode serves them
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "customer", produces = APPLICATION_JSON_VALUE)
+public class ReactiveCustomerController {
+    private final ReactiveCustomerService customerService;
+
+    @Value("${customer.concurrency.require-if-match:false}")
+    private boolean requireIfMatch;
+
+    /**
+     * add customer api, customer with same email is returned as is.
+     * Retries carrying same idempotency key are answered with the
+     * result of first request, a key reused with another body is rejected
+     *
+     * @param customerDTO    {@link CustomerDTO} customer dto request body
+     * @param idempotencyKey {@link String} client generated request key, optional
+     * @return {@link CustomerDTO} customer dto with id populated
+     */
+    @Operation(summary = "add customer")
+    @PostMapping
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_ADD)
+    public Mono<ResponseEntity<Response<?>>> addCustomer(
+            @Valid @RequestBody final CustomerDTO customerDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) final String idempotencyKey) {
+        log.info("Add customer api initiated");
+        return customerService.add(customerDTO, idempotencyKey)
+                .map(responseDTO -> {
+                    log.info("Add customer api completed");
+                    return ResponseEntity
+                            .status(CREATED)
+                            .<Response<?>>body(new Response<>(responseDTO, CREATED.value()));
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e))
+                .onErrorResume(IdempotencyKeyReusedException.class, e -> error(UNPROCESSABLE_ENTITY, e));
+    }
+
+    /**
+     * add customer's in bulk api, every item gets its own result so
+     * a batch is never rejected because of a single invalid item
+     *
+     * @param customerDTOs {@link List} customer dto request body
+     * @return {@link BatchResult} result of each item in request order
+     */
+    @Operation(summary = "add customer's in bulk")
+    @PostMapping("/batch")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_BATCH)
+    public Mono<ResponseEntity<Response<?>>> addCustomers(@RequestBody final List<CustomerDTO> customerDTOs) {
+        log.info("Add customers api initiated: {}", customerDTOs.size());
+        return customerService.addAll(customerDTOs)
+                .map(results -> {
+                    log.info("Add customers api completed");
+                    return ResponseEntity
+                            .status(OK)
+                            .<Response<?>>body(new Response<>(results, OK.value()));
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e));
+    }
+
+    /**
+     * update customer record api, when If-Match carries the entity tag of
+     * a previous response the update is applied only if customer was not
+     * changed since. Entity tag of updated customer is returned whether
+     * If-Match was sent or not
+     *
+     * @param id          {@link String} customer id
+     * @param customerDTO {@link CustomerDTO} updated customer dto object
+     * @param ifMatch     {@link String} entity tag client holds, optional unless required by configuration
+     */
+    @Operation(summary = "update customer's information")
+    @PutMapping("/{id}")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_UPDATE)
+    public Mono<ResponseEntity<Response<?>>> updateCustomer(@PathVariable("id") final String id,
+                                                            @Valid @RequestBody final CustomerDTO customerDTO,
+                                                            @RequestHeader(name = IF_MATCH, required = false)
+                                                            final String ifMatch) {
+        return Mono.defer(() -> {
+                    log.info("Update customer api initiated: {}", id);
+                    Objects.requireNonNull(id, REQUIRE_ID);
+                    if (ifMatch == null && requireIfMatch)
+                        throw new PreconditionRequiredException(VERSION_REQUIRED);
+                    final Long version = ifMatch != null ? VersionTag.parse(ifMatch) : null;
+                    return customerService.update(id, customerDTO, version);
+                })
+                .map(responseDTO -> {
+                    log.info("Update customer api completed: {}", id);
+                    return ResponseEntity
+                            .status(OK)
+                            .eTag(VersionTag.of(responseDTO.getVersion()))
+                            .<Response<?>>body(new Response<>(responseDTO, OK.value()));
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e))
+                .onErrorResume(DuplicateException.class, e -> error(CONFLICT, e))
+                .onErrorResume(NotFoundException.class, e -> error(NOT_FOUND, e))
+                .onErrorResume(PreconditionFailedException.class, e -> error(PRECONDITION_FAILED, e))
+                .onErrorResume(PreconditionRequiredException.class, e -> error(PRECONDITION_REQUIRED, e));
+    }
+
+    /**
+     * get customer details api, entity tag of customer version is returned
+     * and a matching If-None-Match is answered with 304
+     *
+     * @param id {@link String} customer id
+     * @return {@link CustomerDTO} customer dto object
+     */
+    @Operation(summary = "get customer's information")
+    @GetMapping("/{id}")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_GET)
+    public Mono<ResponseEntity<Response<?>>> get(@PathVariable("id") final String id) {
+        log.info("Get customer initiated: {}", id);
+        return customerService.get(id)
+                .map(responseDTO -> {
+                    log.info("Get customer completed: {}", id);
+                    return ResponseEntity
+                            .status(OK)
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(VersionTag.of(responseDTO.getVersion()))
+                            .<Response<?>>body(new Response<>(responseDTO, OK.value()));
+                })
+                .onErrorResume(GenericException.class, e -> error(BAD_REQUEST, e))
+                .onErrorResume(NotFoundException.class, e -> error(NOT_FOUND, e));
+    }
+
+    /**
+     * delete customer api
+     *
+     * @param id {@link String} customer id
+     * @return {@link String} success message
+     */
+    @Operation(summary = "delete customer")
+    @DeleteMapping("/{id}")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_DELETE)
+    public Mono<ResponseEntity<Response<?>>> delete(@PathVariable("id") final String id) {
+        log.info("Delete customer initiated: {}", id);
+        return customerService.delete(id)
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Delete customer completed: {}", id);
+                    return ResponseEntity
+                            .status(OK)
+                            .<Response<?>>body(new Response<>(SUCCESS_DELETE, OK.value()));
+                }))
+                .onErrorResume(GenericException.class, e -> error(BAD_REQUEST, e))
+                .onErrorResume(NotFoundException.class, e -> error(NOT_FOUND, e));
+    }
+
+    /**
+     * retrieve many customer's by id in one call api
+     *
+     * @param ids {@link Set} customer ids
+     * @return {@link java.util.Map} customer's by id, ids not found are absent
+     */
+    @Operation(summary = "retrieve customer's in bulk")
+    @PostMapping("/lookup")
+    @CircuitBreaker(name = CUSTOMER_SERVICE, fallbackMethod = "serviceUnavailable")
+    @Bulkhead(name = BULKHEAD_LOOKUP)
+    public Mono<ResponseEntity<Response<?>>> lookup(@RequestBody final Set<String> ids) {
+        log.info("Lookup customers api initiated: {}", ids.size());
+        return customerService.lookup(ids)
+                .map(customers -> {
+                    log.info("Lookup customers api completed: {}", customers.size());
+                    return ResponseEntity
+                            .status(OK)
+                            .<Response<?>>body(new Response<>(customers, OK.value()));
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e));
+    }
+
+    /**
+     * get all customer's with pagination api, total records are counted
+     * exactly, estimated from table statistics or skipped
+     *
+     * @param total       {@link String} exact, estimated or none
+     * @param pageRequest {@link Pageable} paginated properties
+     * @return {@link ResponsePager} customer's page
+     */
+    @Operation(summary = "get all customer's with pagination")
+    @GetMapping("/all")
+    @Bulkhead(name = BULKHEAD_PAGE)
+    public Mono<ResponseEntity<?>> getAllCustomers(@RequestParam(name = "total", defaultValue = "exact")
+                                                   final String total,
+                                                   final Pageable pageRequest) {
+        return Mono.defer(() -> {
+                    log.info("Search customer with pagination initiated: {}, total: {}", pageRequest, total);
+                    final TotalCount totalCount = TotalCount.of(total);
+                    if (totalCount == TotalCount.EXACT) {
+                        return customerService.getAll(pageRequest)
+                                .map(pageCustomers -> new ResponsePager<>(pageCustomers.getContent(),
+                                        pageCustomers.getNumber(),
+                                        pageCustomers.getTotalElements(),
+                                        pageCustomers.getTotalPages(),
+                                        false,
+                                        pageCustomers.hasNext(),
+                                        null
+                                ));
+                    }
+                    final Mono<Optional<Long>> estimatedTotal = totalCount == TotalCount.ESTIMATED
+                            ? customerService.getEstimatedTotal().map(Optional::of)
+                            : Mono.just(Optional.empty());
+                    return customerService.getAllSlice(pageRequest)
+                            .zipWith(estimatedTotal, (sliceCustomers, estimate) -> {
+                                final Long totalRecords = estimate.orElse(null);
+                                return new ResponsePager<>(sliceCustomers.getContent(),
+                                        sliceCustomers.getNumber(),
+                                        totalRecords,
+                                        totalRecords != null
+                                                ? (int) Math.ceil((double) totalRecords / sliceCustomers.getSize())
+                                                : null,
+                                        totalRecords != null ? true : null,
+                                        sliceCustomers.hasNext(),
+                                        null
+                                );
+                            });
+                })
+                .<ResponseEntity<?>>map(responsePage -> {
+                    log.info("Search customer with pagination completed");
+                    return ResponseEntity
+                            .status(OK)
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(VersionTag.of(responsePage))
+                            .body(responsePage);
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e))
+                .onErrorResume(NotFoundException.class, e -> error(NOT_FOUND, e));
+    }
+
+    /**
+     * get customer's after a continuation token api, see
+     * {@link CustomerController#getAllCustomersByCursor(String, Pageable)}
+     *
+     * @param cursor      {@link String} continuation token of previous page, blank for first page
+     * @param pageRequest {@link Pageable} page size and sort properties
+     * @return {@link ResponsePager} customer's window with next cursor
+     */
+    @Operation(summary = "get all customer's with cursor")
+    @GetMapping(value = "/all", params = "cursor")
+    @Bulkhead(name = BULKHEAD_PAGE)
+    public Mono<ResponseEntity<?>> getAllCustomersByCursor(@RequestParam("cursor") final String cursor,
+                                                           final Pageable pageRequest) {
+        return Mono.defer(() -> {
+                    log.info("Search customer with cursor initiated: {}", pageRequest);
+                    return customerService.scroll(KeysetCursor.decode(cursor),
+                            pageRequest.getSort(),
+                            pageRequest.getPageSize());
+                })
+                .<ResponseEntity<?>>map(windowCustomers -> {
+                    final ResponsePager<CustomerDTO> responsePage = new ResponsePager<>(windowCustomers.getContent(),
+                            null,
+                            null,
+                            null,
+                            null,
+                            windowCustomers.hasNext(),
+                            windowCustomers.hasNext()
+                                    ? KeysetCursor.encode(windowCustomers.positionAt(windowCustomers.size() - 1))
+                                    : null
+                    );
+                    log.info("Search customer with cursor completed");
+                    return ResponseEntity
+                            .status(OK)
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(VersionTag.of(responsePage))
+                            .body(responsePage);
+                })
+                .onErrorResume(this::isBadRequest, e -> error(BAD_REQUEST, e));
+    }
+
+    /**
+     * export every customer as newline delimited json, customer's are
+     * written as they are read from database under client backpressure
+     *
+     * @return {@link Flux} customer's
+     */
+    @Operation(summary = "export all customer's")
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerDTO> export() {
+        log.info("Export customer initiated");
+        return customerService.export();
+    }
+
+    /**
+     * circuit breaker to avoid error calls for adding customer
+     *
+     * @param customerDTO    {@link CustomerDTO} customer payload
+     * @param idempotencyKey {@link String} client generated request key
+     * @param e              {@link Throwable} unexpected exception
+     * @return {@link Mono} failed with the exception
+     */
+    private Mono<ResponseEntity<Response<?>>> serviceUnavailable(final CustomerDTO customerDTO,
+                                                                 final String idempotencyKey,
+                                                                 final Throwable e) {
+        log.error("Could not process customer, email: {}, error: {}",
+                customerDTO.getEmail(), e.getMessage());
+        return Mono.error(e);
+    }
+
+    /**
+     * circuit breaker to avoid error calls for adding customer's in bulk
+     *
+     * @param customerDTOs {@link List} customer payloads
+     * @param e            {@link Throwable} unexpected exception
+     * @return {@link Mono} failed with the exception
+     */
+    private Mono<ResponseEntity<Response<?>>> serviceUnavailable(final List<CustomerDTO> customerDTOs,
+                                                                 final Throwable e) {
+        log.error("Could not process customers, size: {}, error: {}", customerDTOs.size(), e.getMessage());
+        return Mono.error(e);
+    }
+
+    /**
+     * circuit breaker to avoid error calls for retrieving customer's in bulk
+     *
+     * @param ids {@link Set} customer ids
+     * @param e   {@link Throwable} unexpected exception
+     * @return {@link Mono} failed with the exception
+     */
+    private Mono<ResponseEntity<Response<?>>> serviceUnavailable(final Set<String> ids,
+                                                                 final Throwable e) {
+        log.error("Could not lookup customers, size: {}, error: {}", ids.size(), e.getMessage());
+        return Mono.error(e);
+    }
+
+    /**
+     * circuit breaker to avoid error calls for updating customer
+     *
+     * @param id          {@link String} customer id
+     * @param customerDTO {@link CustomerDTO} customer payload
+     * @param ifMatch     {@link String} entity tag client holds
+     * @param e           {@link Throwable} unexpected exception
+     * @return {@link Mono} failed with the exception
+     */
+    private Mono<ResponseEntity<Response<?>>> serviceUnavailable(final String id,
+                                                                 final CustomerDTO customerDTO,
+                                                                 final String ifMatch,
+                                                                 final Throwable e) {
+        log.error("Could not process customer, id: {}, error: {}", id, e.getMessage());
+        return Mono.error(e);
+    }
+
+    /**
+     * circuit breaker to avoid error calls for retrieving and deleting customer
+     *
+     * @param id {@link String} customer id
+     * @param e  {@link Throwable} unexpected exception
+     * @return {@link Mono} failed with the exception
+     */
+    private Mono<ResponseEntity<Response<?>>> serviceUnavailable(final String id,
+                                                                 final Throwable e) {
+        log.error("Could not process customer, id: {}, error: {}", id, e.getMessage());
+        return Mono.error(e);
+    }
+
+    /**
+     * @param e {@link Throwable} error of request
+     * @return whether error is answered with 400 same as blocking controller
+     */
+    private boolean isBadRequest(final Throwable e) {
+        return e instanceof GenericException || e instanceof IllegalArgumentException;
+    }
+
+    /**
+     * @param status {@link HttpStatus} status of response
+     * @param e      {@link Throwable} error of request
+     * @return {@link Mono} error response
+     */
+    private Mono<ResponseEntity<Response<?>>> error(final HttpStatus status, final Throwable e) {
+        log.error("Error occurred: {}", e.getMessage());
+        return Mono.just(ResponseEntity
+                .status(status)
+                .body(new Response<>(e.getMessage(), status.value())));
+    }
+}
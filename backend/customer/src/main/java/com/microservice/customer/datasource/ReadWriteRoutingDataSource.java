@@ -0,0 +1,60 @@
+package com.microservice.customer.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * routes read only transactions to replicas in round robin order and
+ * everything else to primary. Connection is resolved when first statement
+ * is executed so it has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * for transaction read only flag to be visible here
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param primary  {@link DataSource} primary datasource receiving writes
+     * @param replicas {@link List} replica datasources receiving read only transactions
+     */
+    public ReadWriteRoutingDataSource(final DataSource primary, final List<? extends DataSource> replicas) {
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int index = 0; index < replicas.size(); index++) {
+            replicaKeys.add(REPLICA + index);
+            targets.put(REPLICA + index, replicas.get(index));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive())
+                ReadYourWrites.markWritten();
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || ReadYourWrites.isPinned())
+            return PRIMARY;
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.microservice.customer.datasource;
+
+import com.microservice.customer.exception.NoInstanceException;
+
+import java.util.function.Supplier;
+
+/**
+ * read your writes state of the current request, once a request wrote to
+ * primary or arrives from a client that wrote recently every read only
+ * transaction of that request is served by primary instead of a replica
+ * which may not have replicated the write yet
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReadYourWrites() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * start tracking current request
+     *
+     * @param pinned  whether client wrote within sticky window
+     * @param onWrite {@link Runnable} invoked once on first write of request
+     */
+    public static void begin(final boolean pinned, final Runnable onWrite) {
+        STATE.set(new State(pinned, onWrite));
+    }
+
+    /**
+     * stop tracking current request
+     */
+    public static void end() {
+        STATE.remove();
+    }
+
+    /**
+     * @return whether reads of current request must be served by primary
+     */
+    public static boolean isPinned() {
+        final State state = STATE.get();
+        return state != null && state.pinned;
+    }
+
+    /**
+     * run reads on primary regardless of sticky window, used when result
+     * outlives the request e.g. cached and must include every committed write
+     *
+     * @param reads {@link Supplier} reads to run
+     * @return result of reads
+     */
+    public static <T> T onPrimary(final Supplier<T> reads) {
+        final State state = STATE.get();
+        if (state == null) {
+            begin(true, () -> {
+            });
+            try {
+                return reads.get();
+            } finally {
+                end();
+            }
+        }
+        final boolean pinned = state.pinned;
+        state.pinned = true;
+        try {
+            return reads.get();
+        } finally {
+            state.pinned = pinned || state.written;
+        }
+    }
+
+    /**
+     * record a write to primary, following reads of current request
+     * are pinned to primary
+     */
+    public static void markWritten() {
+        final State state = STATE.get();
+        if (state == null || state.written)
+            return;
+        state.written = true;
+        state.pinned = true;
+        state.onWrite.run();
+    }
+
+    private static final class State {
+        private final Runnable onWrite;
+        private boolean pinned;
+        private boolean written;
+
+        private State(final boolean pinned, final Runnable onWrite) {
+            this.pinned = pinned;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.microservice.customer.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+import static com.microservice.customer.utils.Constants.READ_PRIMARY_COOKIE;
+
+/**
+ * keeps reads of a client on primary for sticky window after it wrote.
+ * A request that writes receives a cookie holding the time until which
+ * its reads are pinned, clients sending the cookie back read their own
+ * writes while replicas catch up
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final int stickyWindow;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param stickyWindow seconds reads stay on primary after a write
+     */
+    public ReadYourWritesFilter(final int stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWrites.begin(isPinned(request), () -> pin(request, response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    private boolean isPinned(final HttpServletRequest request) {
+        final Cookie cookie = WebUtils.getCookie(request, READ_PRIMARY_COOKIE);
+        if (cookie == null)
+            return false;
+        try {
+            return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void pin(final HttpServletRequest request, final HttpServletResponse response) {
+        if (response.isCommitted())
+            return;
+        final Cookie cookie = new Cookie(READ_PRIMARY_COOKIE,
+                String.valueOf(System.currentTimeMillis() + stickyWindow * 1000L));
+        cookie.setMaxAge(stickyWindow);
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setHttpOnly(true);
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservice.customer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * result of a single item of a batch request
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public record BatchResult(
+        @Schema(description = "index of item within request") int index,
+        @Schema(description = "outcome of item") BatchStatus status,
+        @Schema(description = "customer stored or already existing") CustomerDTO content,
+        @Schema(description = "reason when item is not stored") String message) {
+}
@@ -0,0 +1,26 @@
+package com.microservice.customer.dto;
+
+/**
+ * outcome of a single item of a batch request
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public enum BatchStatus {
+    /**
+     * customer is created
+     */
+    CREATED,
+    /**
+     * customer with same email already exists, existing record is returned
+     */
+    EXISTING,
+    /**
+     * same email is repeated within batch, first occurrence is processed
+     */
+    DUPLICATE,
+    /**
+     * payload is not valid, nothing is stored
+     */
+    INVALID
+}
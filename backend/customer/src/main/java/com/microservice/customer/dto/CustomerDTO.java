@@ -1,11 +1,15 @@
 package com.microservice.customer.dto;
 
 import jakarta.validation.constraints.Email;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import org.apache.logging.log4j.core.config.plugins.validation.constraints.NotBlank;
 
 @Value
+@Builder
+@Jacksonized
 @EqualsAndHashCode
 public class CustomerDTO {
     private String id;
@@ -22,4 +26,5 @@ public class CustomerDTO {
     private String phoneNumber;
     @NotBlank(message = "itin/ssn is required")
     private String itinOrSsn;
+    private Long version;
 }
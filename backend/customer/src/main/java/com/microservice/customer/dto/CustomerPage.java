@@ -0,0 +1,34 @@
+package com.microservice.customer.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * page of customer's as kept in page cache, only content and total
+ * records are stored, paging properties are taken from the request
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public record CustomerPage(List<CustomerDTO> content, long totalElements) {
+
+    /**
+     * @param page {@link Page} customer's page
+     * @return {@link CustomerPage} cacheable page
+     */
+    public static CustomerPage of(final Page<CustomerDTO> page) {
+        return new CustomerPage(new ArrayList<>(page.getContent()), page.getTotalElements());
+    }
+
+    /**
+     * @param pageable {@link Pageable} paginated properties of request
+     * @return {@link Page} customer's page
+     */
+    public Page<CustomerDTO> toPage(final Pageable pageable) {
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+}
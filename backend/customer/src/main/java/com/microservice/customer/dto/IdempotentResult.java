@@ -0,0 +1,58 @@
+package com.microservice.customer.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * result of add customer as kept against idempotency key, hash of the
+ * request body is stored with it so a key reused with another body is
+ * rejected instead of answered with the result of a different request
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public record IdempotentResult(String requestHash, CustomerDTO content) {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final char NULL_FIELD = '\u0001';
+
+    /**
+     * @param customerDTO {@link CustomerDTO} customer payload of request
+     * @param content     {@link CustomerDTO} customer stored for request
+     * @return {@link IdempotentResult} result bound to request payload
+     */
+    public static IdempotentResult of(final CustomerDTO customerDTO, final CustomerDTO content) {
+        return new IdempotentResult(hash(customerDTO), content);
+    }
+
+    /**
+     * @param customerDTO {@link CustomerDTO} customer payload of request
+     * @return true when result was stored for same customer payload
+     */
+    public boolean matches(final CustomerDTO customerDTO) {
+        return hash(customerDTO).equals(requestHash);
+    }
+
+    /**
+     * sha-256 of the fields a customer is stored with, id and version of
+     * the payload are not stored on add so they are left out
+     *
+     * @param customerDTO {@link CustomerDTO} customer payload of request
+     * @return {@link String} hex encoded hash
+     */
+    public static String hash(final CustomerDTO customerDTO) {
+        final StringBuilder body = new StringBuilder();
+        Stream.of(customerDTO.getFirstName(), customerDTO.getLastName(), customerDTO.getEmail(),
+                        customerDTO.getDateOfBirth(), customerDTO.getPhoneNumber(), customerDTO.getItinOrSsn())
+                .forEach(field -> body.append(field == null ? String.valueOf(NULL_FIELD) : field).append(FIELD_SEPARATOR));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(body.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
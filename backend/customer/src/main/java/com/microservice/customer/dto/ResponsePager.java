@@ -5,14 +5,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.List;
 
 /**
- * class that resides response with pagination properties
+ * class that resides response with pagination properties, page number
+ * mode populates page and totals while cursor mode populates next cursor.
+ * Total records are either exact or estimated from table statistics
  *
  * @author Asif Bakht
  * @since 2024
  */
 public record ResponsePager<T>(
         @Schema(description = "Content") List<T> content,
-        @Schema(description = "currentPage") int currentPage,
-        @Schema(description = "totalRecords") long totalRecords,
-        @Schema(description = "totalRecords") int totalPages) {
+        @Schema(description = "currentPage") Integer currentPage,
+        @Schema(description = "totalRecords") Long totalRecords,
+        @Schema(description = "totalPages") Integer totalPages,
+        @Schema(description = "totalRecords is estimated rather than counted") Boolean totalEstimated,
+        @Schema(description = "next page exists") Boolean hasNext,
+        @Schema(description = "cursor of next page, absent on last page") String nextCursor) {
 }
\ No newline at end of file
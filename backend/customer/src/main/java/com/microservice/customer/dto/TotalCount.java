@@ -0,0 +1,39 @@
+package com.microservice.customer.dto;
+
+import java.util.Arrays;
+
+import static com.microservice.customer.utils.Constants.INVALID_TOTAL_COUNT;
+
+/**
+ * how total records of a paginated listing are computed
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public enum TotalCount {
+    /**
+     * exact total with a count query on every call
+     */
+    EXACT,
+    /**
+     * approximate total from table statistics, cached for a configured interval
+     */
+    ESTIMATED,
+    /**
+     * no total, only whether next page exists
+     */
+    NONE;
+
+    /**
+     * resolve total count mode case-insensitively
+     *
+     * @param value {@link String} requested mode
+     * @return {@link TotalCount} total count mode
+     */
+    public static TotalCount of(final String value) {
+        return Arrays.stream(values())
+                .filter(totalCount -> totalCount.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(INVALID_TOTAL_COUNT.formatted(value)));
+    }
+}
@@ -1,19 +1,26 @@
 package com.microservice.customer.entity;
 
+import com.microservice.customer.helper.uuid.GeneratedUuidV7;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
 
 /**
  * customer class properties and its database
- * related persistence details resides here
+ * related persistence details resides here, id is a
+ * time ordered uuid stored as BINARY(16), version is
+ * increased on every update and used for optimistic concurrency
  *
  * @author Asif Bakht
  * @since 2024
@@ -28,8 +35,10 @@ import lombok.NoArgsConstructor;
 public class Customer extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @GeneratedUuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
 
     private String firstName;
 
@@ -43,4 +52,7 @@ public class Customer extends BaseEntity {
 
     private String itinOrSsn;
 
+    @Version
+    private Long version;
+
 }
@@ -1,20 +1,35 @@
 package com.microservice.customer.exception;
 
 import com.microservice.customer.dto.Response;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static com.microservice.customer.utils.Constants.DELIMETER_COMMA;
+import static com.microservice.customer.utils.Constants.RESOURCE_ALREADY_EXISTS;
+import static com.microservice.customer.utils.Constants.SERVICE_BUSY;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 /**
  * exception thrown from business services or controller
@@ -27,6 +42,9 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @Log4j2
 public class GlobalExceptionHandler {
 
+    @Value("${customer.load-shedding.retry-after:1}")
+    private long retryAfter;
+
     /**
      * exception handler when specific resource not exists
      *
@@ -40,6 +58,47 @@ public class GlobalExceptionHandler {
                 .body(new Response<>(e.getMessage(), NOT_FOUND.value()));
     }
 
+    /**
+     * exception handler when resource was changed after the version
+     * client holds
+     *
+     * @param e {@link PreconditionFailedException} exception
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Response<?>> handlePreconditionFailedException(final PreconditionFailedException e) {
+        return ResponseEntity
+                .status(PRECONDITION_FAILED)
+                .body(new Response<>(e.getMessage(), PRECONDITION_FAILED.value()));
+    }
+
+    /**
+     * exception handler when conditional request is required
+     *
+     * @param e {@link PreconditionRequiredException} exception
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<Response<?>> handlePreconditionRequiredException(final PreconditionRequiredException e) {
+        return ResponseEntity
+                .status(PRECONDITION_REQUIRED)
+                .body(new Response<>(e.getMessage(), PRECONDITION_REQUIRED.value()));
+    }
+
+    /**
+     * exception handler when idempotency key is reused with a different
+     * request body
+     *
+     * @param e {@link IdempotencyKeyReusedException} exception
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Response<?>> handleIdempotencyKeyReusedException(final IdempotencyKeyReusedException e) {
+        return ResponseEntity
+                .status(UNPROCESSABLE_ENTITY)
+                .body(new Response<>(e.getMessage(), UNPROCESSABLE_ENTITY.value()));
+    }
+
     /**
      * exception handler when payload field validation invokes
      *
@@ -48,18 +107,23 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Response<?>> handleRequestNotValidException(final MethodArgumentNotValidException e) {
+        return ResponseEntity
+                .status(BAD_REQUEST)
+                .body(new Response<>(payloadMessage(e.getBindingResult()), BAD_REQUEST.value()));
+    }
 
-        List<String> errors = new ArrayList<>();
-        e.getBindingResult()
-                .getFieldErrors().forEach(error -> errors.add(error.getField() + ": " + error.getDefaultMessage()));
-        e.getBindingResult()
-                .getGlobalErrors()
-                .forEach(error -> errors.add(error.getObjectName() + ": " + error.getDefaultMessage()));
-
-        final String message = "Payload misses information: %s".formatted(String.join(DELIMETER_COMMA, errors));
+    /**
+     * exception handler when payload field validation invokes on
+     * reactive serving mode
+     *
+     * @param e {@link WebExchangeBindException} exception
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Response<?>> handleWebExchangeBindException(final WebExchangeBindException e) {
         return ResponseEntity
                 .status(BAD_REQUEST)
-                .body(new Response<>(message, BAD_REQUEST.value()));
+                .body(new Response<>(payloadMessage(e.getBindingResult()), BAD_REQUEST.value()));
     }
 
     /**
@@ -75,6 +139,53 @@ public class GlobalExceptionHandler {
                 .body(new Response<>(e.getMessage(), CONFLICT.value()));
     }
 
+    /**
+     * exception handler when a write is rejected by a unique constraint,
+     * raced write of same resource ends here
+     *
+     * @param e {@link DataIntegrityViolationException} exception
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Response<?>> handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
+        log.error("Error occurred: {}", e.getMessage());
+        return ResponseEntity
+                .status(CONFLICT)
+                .body(new Response<>(RESOURCE_ALREADY_EXISTS, CONFLICT.value()));
+    }
+
+    /**
+     * exception handler when an endpoint bulkhead is full or circuit
+     * breaker is open, load is shed and client is asked to retry later
+     *
+     * @param e {@link RuntimeException} bulkhead or circuit breaker rejection
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler({BulkheadFullException.class, CallNotPermittedException.class})
+    public ResponseEntity<Response<?>> handleServiceBusyException(final RuntimeException e) {
+        log.warn("Request shed: {}", e.getMessage());
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new Response<>(SERVICE_BUSY, SERVICE_UNAVAILABLE.value()));
+    }
+
+    /**
+     * exception handler when no database connection could be borrowed in
+     * time, database work is shed and client is asked to retry later
+     *
+     * @param e {@link RuntimeException} connection acquisition failure
+     * @return {@link ResponseEntity} response entity
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Response<?>> handleConnectionUnavailableException(final RuntimeException e) {
+        log.warn("Database work shed: {}", e.getMessage());
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new Response<>(SERVICE_BUSY, SERVICE_UNAVAILABLE.value()));
+    }
+
     /**
      * exception handler that catches generic exception within entire application
      * will be handled here
@@ -116,4 +227,18 @@ public class GlobalExceptionHandler {
                 .body(new Response<>(e.getMessage(), INTERNAL_SERVER_ERROR.value()));
     }
 
+    /**
+     * @param bindingResult {@link BindingResult} failed validation of payload
+     * @return {@link String} message listing every field error
+     */
+    private String payloadMessage(final BindingResult bindingResult) {
+        List<String> errors = new ArrayList<>();
+        bindingResult
+                .getFieldErrors().forEach(error -> errors.add(error.getField() + ": " + error.getDefaultMessage()));
+        bindingResult
+                .getGlobalErrors()
+                .forEach(error -> errors.add(error.getObjectName() + ": " + error.getDefaultMessage()));
+        return "Payload misses information: %s".formatted(String.join(DELIMETER_COMMA, errors));
+    }
+
 }
\ No newline at end of file
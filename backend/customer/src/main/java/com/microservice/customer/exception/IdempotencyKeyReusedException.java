@@ -0,0 +1,21 @@
+package com.microservice.customer.exception;
+
+/**
+ * idempotency key reused exception when a key already answered
+ * a request is sent again with a different request body
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param message {@link String} exception message
+     */
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.microservice.customer.exception;
+
+/**
+ * precondition failed exception when resource was changed
+ * after the version client holds
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param message {@link String} exception message
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.microservice.customer.exception;
+
+/**
+ * precondition required exception when conditional request
+ * is mandatory but client did not send any condition
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class PreconditionRequiredException extends RuntimeException {
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param message {@link String} exception message
+     */
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.microservice.customer.helper.etag;
+
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.ResponsePager;
+import com.microservice.customer.exception.NoInstanceException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.microservice.customer.utils.Constants.VERSION_MISMATCH;
+
+/**
+ * converts entity version to a strong entity tag and back, version
+ * changes on every write so the tag identifies a representation. Pages
+ * get a weak tag derived from versions of the customer's they hold
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class VersionTag {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String QUOTE = "\"";
+
+    private VersionTag() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * @param version entity version
+     * @return {@link String} quoted strong entity tag, null when version is unknown
+     */
+    public static String of(final Long version) {
+        return version != null ? QUOTE + version + QUOTE : null;
+    }
+
+    /**
+     * weak entity tag of a page, digest of id and version of every customer
+     * on the page and of pagination properties. Computing it costs far less
+     * than serializing the page and the tag changes whenever any customer
+     * on the page is changed, added or removed
+     *
+     * @param page {@link ResponsePager} customer page
+     * @return {@link String} quoted weak entity tag
+     */
+    public static String of(final ResponsePager<CustomerDTO> page) {
+        final StringBuilder builder = new StringBuilder();
+        page.content().forEach(customerDTO -> builder
+                .append(customerDTO.getId()).append(':')
+                .append(customerDTO.getVersion()).append(','));
+        builder.append(page.currentPage()).append(',')
+                .append(page.totalRecords()).append(',')
+                .append(page.totalPages()).append(',')
+                .append(page.totalEstimated()).append(',')
+                .append(page.hasNext()).append(',')
+                .append(page.nextCursor());
+        return WEAK_PREFIX + QUOTE
+                + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8))
+                + QUOTE;
+    }
+
+    /**
+     * parse If-Match header, weak tags never match as If-Match
+     * requires strong comparison
+     *
+     * @param ifMatch {@link String} If-Match header value
+     * @return expected version, null when any version matches
+     */
+    public static Long parse(final String ifMatch) {
+        final String tag = StringUtils.trim(ifMatch);
+        if (ANY.equals(tag))
+            return null;
+        if (tag == null || tag.startsWith(WEAK_PREFIX) || tag.length() < 3
+                || !tag.startsWith(QUOTE) || !tag.endsWith(QUOTE))
+            throw new PreconditionFailedException(VERSION_MISMATCH);
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (final NumberFormatException e) {
+            throw new PreconditionFailedException(VERSION_MISMATCH);
+        }
+    }
+}
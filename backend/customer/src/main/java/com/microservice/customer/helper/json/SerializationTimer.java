@@ -0,0 +1,35 @@
+package com.microservice.customer.helper.json;
+
+import com.microservice.customer.exception.NoInstanceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * timer of json payload serialization, published as
+ * customer.serialization tagged with operation read or write
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class SerializationTimer {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    private SerializationTimer() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     * @param operation     {@link String} read or write
+     * @return {@link Timer} serialization timer of operation
+     */
+    public static Timer of(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder("customer.serialization")
+                .description("Json serialization of request and response payloads")
+                .tag("format", "json")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.microservice.customer.helper.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * json decoder of reactive serving mode that times decoding of request
+ * bodies once they are fully received
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TimedJsonDecoder extends Jackson2JsonDecoder {
+
+    private final Timer readTimer;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param objectMapper  {@link ObjectMapper} application object mapper
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     */
+    public TimedJsonDecoder(final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.readTimer = SerializationTimer.of(meterRegistry, SerializationTimer.READ);
+    }
+
+    @Override
+    public Object decode(@NonNull final DataBuffer dataBuffer,
+                         @NonNull final ResolvableType targetType,
+                         @Nullable final MimeType mimeType,
+                         @Nullable final Map<String, Object> hints) throws DecodingException {
+        final long start = System.nanoTime();
+        try {
+            return super.decode(dataBuffer, targetType, mimeType, hints);
+        } finally {
+            readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
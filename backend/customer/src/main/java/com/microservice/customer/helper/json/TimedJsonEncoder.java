@@ -0,0 +1,53 @@
+package com.microservice.customer.helper.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * json encoder of reactive serving mode that times encoding of single
+ * response values, streamed values are not timed
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TimedJsonEncoder extends Jackson2JsonEncoder {
+
+    private final Timer writeTimer;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param objectMapper  {@link ObjectMapper} application object mapper
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     */
+    public TimedJsonEncoder(final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.writeTimer = SerializationTimer.of(meterRegistry, SerializationTimer.WRITE);
+    }
+
+    @Override
+    @NonNull
+    public DataBuffer encodeValue(@NonNull final Object value,
+                                  @NonNull final DataBufferFactory bufferFactory,
+                                  @NonNull final ResolvableType valueType,
+                                  @Nullable final MimeType mimeType,
+                                  @Nullable final Map<String, Object> hints) {
+        final long start = System.nanoTime();
+        try {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
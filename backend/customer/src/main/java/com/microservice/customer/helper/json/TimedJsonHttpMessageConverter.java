@@ -0,0 +1,69 @@
+package com.microservice.customer.helper.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * json converter of servlet serving mode that times reading of request
+ * bodies and writing of response bodies, writing includes copying into
+ * response buffer
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer readTimer;
+    private final Timer writeTimer;
+
+    /**
+     * Constructor class with dependency
+     *
+     * @param objectMapper  {@link ObjectMapper} object mapper of replaced converter
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     */
+    public TimedJsonHttpMessageConverter(final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.readTimer = SerializationTimer.of(meterRegistry, SerializationTimer.READ);
+        this.writeTimer = SerializationTimer.of(meterRegistry, SerializationTimer.WRITE);
+    }
+
+    @Override
+    @NonNull
+    public Object read(@NonNull final Type type,
+                       @Nullable final Class<?> contextClass,
+                       @NonNull final HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        final long start = System.nanoTime();
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected void writeInternal(@NonNull final Object object,
+                                 @Nullable final Type type,
+                                 @NonNull final HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        final long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.microservice.customer.helper.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.exception.NoInstanceException;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.microservice.customer.utils.Constants.INVALID_CURSOR;
+
+/**
+ * converts keyset scroll position to an opaque continuation token and
+ * back. Token is url safe base64 of the sort key values and id of
+ * the last record returned
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private KeysetCursor() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * encode scroll position into continuation token
+     *
+     * @param position {@link ScrollPosition} position of last returned record
+     * @return {@link String} opaque continuation token
+     */
+    public static String encode(final ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset))
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        try {
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(MAPPER.writeValueAsBytes(keyset.getKeys()));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+
+    /**
+     * decode continuation token, blank token points to first page
+     *
+     * @param cursor {@link String} opaque continuation token
+     * @return {@link KeysetScrollPosition} forward scroll position
+     */
+    public static KeysetScrollPosition decode(final String cursor) {
+        if (StringUtils.isBlank(cursor))
+            return ScrollPosition.keyset();
+        try {
+            final Map<String, Object> keys = MAPPER.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8),
+                    KEYS_TYPE);
+            return ScrollPosition.forward(keys);
+        } catch (final JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+}
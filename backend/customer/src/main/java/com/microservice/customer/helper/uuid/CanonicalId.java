@@ -0,0 +1,32 @@
+package com.microservice.customer.helper.uuid;
+
+import com.microservice.customer.exception.NoInstanceException;
+
+import java.util.UUID;
+
+/**
+ * canonical string form of customer id, uuid parsing is case-insensitive
+ * so ids that differ in letter case only name the same customer and have
+ * to map to the same cache key
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class CanonicalId {
+
+    private CanonicalId() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * @param id {@link String} customer id as sent by client
+     * @return {@link String} lower case uuid, id as is when it is not a uuid as such id can not exist
+     */
+    public static String of(final String id) {
+        try {
+            return UUID.fromString(id).toString();
+        } catch (final IllegalArgumentException | NullPointerException e) {
+            return id;
+        }
+    }
+}
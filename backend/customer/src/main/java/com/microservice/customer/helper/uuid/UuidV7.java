@@ -0,0 +1,45 @@
+package com.microservice.customer.helper.uuid;
+
+import com.microservice.customer.exception.NoInstanceException;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * time ordered uuid version 7 (RFC 9562), first 48 bits carry unix
+ * epoch milliseconds so ids generated later sort after earlier ones and
+ * new rows are appended to the end of the primary key b-tree instead of
+ * being scattered over random pages
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() throws NoInstanceException {
+        throw new NoInstanceException("Object creation of this class is not allowed");
+    }
+
+    /**
+     * generate uuid version 7 from current time and random bits
+     *
+     * @return {@link UUID} time ordered uuid
+     */
+    public static UUID generate() {
+        final byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+        final long timestamp = System.currentTimeMillis();
+
+        long mostSigBits = timestamp << 16;
+        mostSigBits |= 0x7000L;
+        mostSigBits |= ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+
+        long leastSigBits = 0x8000000000000000L;
+        leastSigBits |= (random[2] & 0x3FL) << 56;
+        for (int i = 3; i < 10; i++)
+            leastSigBits |= (random[i] & 0xFFL) << (8 * (9 - i));
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
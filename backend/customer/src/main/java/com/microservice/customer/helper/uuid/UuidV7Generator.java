@@ -0,0 +1,32 @@
+package com.microservice.customer.helper.uuid;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * hibernate id generator producing uuid version 7 before insert, ids
+ * are generated in application so jdbc batch inserts are not disabled
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(final SharedSessionContractImplementor session,
+                           final Object owner,
+                           final Object currentValue,
+                           final EventType eventType) {
+        return UuidV7.generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
@@ -2,10 +2,14 @@ package com.microservice.customer.mapper;
 
 import com.microservice.customer.dto.CustomerDTO;
 import com.microservice.customer.entity.Customer;
+import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
+@DecoratedWith(TimedCustomerMapper.class)
 public interface CustomerMapper {
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(final CustomerDTO customerDTO);
     CustomerDTO toDTO(final Customer customer);
 }
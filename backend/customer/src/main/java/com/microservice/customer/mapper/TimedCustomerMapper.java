@@ -0,0 +1,53 @@
+package com.microservice.customer.mapper;
+
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * times every mapping of generated {@link CustomerMapper}, published as
+ * customer.mapping timer tagged with operation. Mapstruct generates the
+ * bean injected everywhere from this decorator and wires the generated
+ * mapper as its delegate
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+public abstract class TimedCustomerMapper implements CustomerMapper {
+
+    @Autowired
+    @Qualifier("delegate")
+    private CustomerMapper delegate;
+
+    private Timer toEntityTimer;
+    private Timer toDTOTimer;
+
+    /**
+     * @param meterRegistry {@link MeterRegistry} meter registry
+     */
+    @Autowired
+    public void setMeterRegistry(final MeterRegistry meterRegistry) {
+        this.toEntityTimer = timer(meterRegistry, "to_entity");
+        this.toDTOTimer = timer(meterRegistry, "to_dto");
+    }
+
+    @Override
+    public Customer toEntity(final CustomerDTO customerDTO) {
+        return toEntityTimer.record(() -> delegate.toEntity(customerDTO));
+    }
+
+    @Override
+    public CustomerDTO toDTO(final Customer customer) {
+        return toDTOTimer.record(() -> delegate.toDTO(customer));
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder("customer.mapping")
+                .description("Mapping between customer entity and payload")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
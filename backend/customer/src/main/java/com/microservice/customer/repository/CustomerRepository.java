@@ -1,18 +1,119 @@
 package com.microservice.customer.repository;
 
 import com.microservice.customer.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface CustomerRepository extends JpaRepository<Customer, String> {
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    @Query(value = "SELECT * FROM `customer` c WHERE c.email = :email", nativeQuery = true)
-    Optional<Customer> findByEmail(@Param("email") final String email);
+public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    /**
+     * id of customer owning the email, answered from the unique email
+     * index alone as innodb secondary index carries primary key so no
+     * row lookup is needed
+     *
+     * @param email {@link String} customer email
+     * @return {@link Optional} id of customer owning the email
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") final String email);
+
+    /**
+     * overwrite customer details in a single statement without loading
+     * the row first, version is increased and date_updated is maintained
+     * by database. When expected version is given the row is updated only
+     * if it still has that version, no row lock is held beyond the update
+     *
+     * @param customer {@link Customer} customer with id populated
+     * @param version  expected version, null updates any version
+     * @return number of updated rows, 0 when customer does not exist or version differs
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.firstName = :#{#customer.firstName}, c.lastName = :#{#customer.lastName}, " +
+            "c.email = :#{#customer.email}, c.dateOfBirth = :#{#customer.dateOfBirth}, " +
+            "c.phoneNumber = :#{#customer.phoneNumber}, c.itinOrSsn = :#{#customer.itinOrSsn}, " +
+            "c.version = c.version + 1 " +
+            "WHERE c.id = :#{#customer.id} AND (:version IS NULL OR c.version = :version)")
+    int updateById(@Param("customer") final Customer customer, @Param("version") final Long version);
+
+    /**
+     * @param id {@link UUID} customer id
+     * @return {@link Optional} current version of customer
+     */
+    @Query("SELECT c.version FROM Customer c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") final UUID id);
+
+    /**
+     * delete customer in a single statement without loading the row first
+     *
+     * @param id {@link UUID} customer id
+     * @return number of deleted rows, 0 when customer does not exist
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Customer c WHERE c.id = :id")
+    int removeById(@Param("id") final UUID id);
+
+    List<Customer> findAllByEmailIn(final Collection<String> emails);
 
     Page<Customer> findAllByPhoneNumber(final String phoneNumber, final Pageable pageable);
+
+    Window<Customer> findAllBy(final ScrollPosition position, final Sort sort, final Limit limit);
+
+    Slice<Customer> findAllBy(final Pageable pageable);
+
+    /**
+     * forward only scan of customer table, fetch size of Integer.MIN_VALUE
+     * makes mysql driver stream rows one by one instead of reading whole
+     * result set in memory. Must be consumed within a transaction
+     *
+     * @return {@link Stream} customer's
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c")
+    Stream<Customer> streamAll();
+
+    /**
+     * forward only scan of customer emails, streamed the same way
+     * as {@link #streamAll()}. Must be consumed within a transaction
+     *
+     * @return {@link Stream} customer emails
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.email FROM Customer c")
+    Stream<String> streamAllEmails();
+
+    @Query(value = "SELECT t.TABLE_ROWS FROM information_schema.TABLES t " +
+            "WHERE t.TABLE_SCHEMA = DATABASE() AND t.TABLE_NAME = 'customer'", nativeQuery = true)
+    Long estimateCount();
 }
@@ -0,0 +1,357 @@
+package com.microservice.customer.repository;
+
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.helper.uuid.UuidV7;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.microservice.customer.utils.Constants.DELIMETER_COMMA;
+import static com.microservice.customer.utils.Constants.INVALID_CURSOR;
+import static com.microservice.customer.utils.Constants.INVALID_SORT;
+
+/**
+ * non blocking customer queries of reactive serving mode, statements are
+ * the same ones the blocking repository issues against customer table.
+ * Sort properties are mapped to columns through a fixed list so no
+ * request value is ever written into a statement
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerRepository {
+
+    private static final String COLUMNS = "`id`, `first_name`, `last_name`, `email`, `date_of_birth`, "
+            + "`phone_number`, `itin_or_ssn`, `version`";
+    private static final Map<String, String> COLUMN_BY_PROPERTY = Map.of(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email",
+            "dateOfBirth", "date_of_birth",
+            "phoneNumber", "phone_number",
+            "itinOrSsn", "itin_or_ssn",
+            "version", "version");
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * insert customer's with one multi row statement, ids are generated
+     * time ordered and version starts from zero. Statement fails as a
+     * whole when an email is already taken
+     *
+     * @param customers {@link List} new customer's
+     * @return {@link Flux} inserted customer's with id and version populated
+     */
+    public Flux<Customer> insertAll(final List<Customer> customers) {
+        if (customers.isEmpty())
+            return Flux.empty();
+        final StringBuilder sql = new StringBuilder("INSERT INTO `customer` (").append(COLUMNS).append(") VALUES ");
+        for (int i = 0; i < customers.size(); i++) {
+            customers.get(i).setId(UuidV7.generate());
+            customers.get(i).setVersion(0L);
+            sql.append(i == 0 ? "" : DELIMETER_COMMA)
+                    .append("(:id").append(i)
+                    .append(", :firstName").append(i)
+                    .append(", :lastName").append(i)
+                    .append(", :email").append(i)
+                    .append(", :dateOfBirth").append(i)
+                    .append(", :phoneNumber").append(i)
+                    .append(", :itinOrSsn").append(i)
+                    .append(", 0)");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < customers.size(); i++)
+            spec = bindCustomer(spec, customers.get(i), String.valueOf(i));
+        return spec.fetch()
+                .rowsUpdated()
+                .thenMany(Flux.fromIterable(customers));
+    }
+
+    /**
+     * @param email {@link String} customer email
+     * @return {@link Mono} customer, empty when email is not taken
+     */
+    public Mono<Customer> findByEmail(final String email) {
+        if (email == null)
+            return Mono.empty();
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer` WHERE `email` = :email")
+                .bind("email", email)
+                .map(this::toCustomer)
+                .one();
+    }
+
+    /**
+     * @param emails {@link Collection} customer emails
+     * @return {@link Flux} customer's owning the emails
+     */
+    public Flux<Customer> findAllByEmailIn(final Collection<String> emails) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer` WHERE `email` IN (:emails)")
+                .bind("emails", emails)
+                .map(this::toCustomer)
+                .all();
+    }
+
+    /**
+     * @param id {@link UUID} customer id
+     * @return {@link Mono} customer, empty when it does not exist
+     */
+    public Mono<Customer> findById(final UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer` WHERE `id` = :id")
+                .bind("id", toBytes(id))
+                .map(this::toCustomer)
+                .one();
+    }
+
+    /**
+     * @param ids {@link Collection} customer ids
+     * @return {@link Flux} customer's found
+     */
+    public Flux<Customer> findAllById(final Collection<UUID> ids) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer` WHERE `id` IN (:ids)")
+                .bind("ids", ids.stream().map(this::toBytes).toList())
+                .map(this::toCustomer)
+                .all();
+    }
+
+    /**
+     * @param id {@link UUID} customer id
+     * @return {@link Mono} whether customer exists
+     */
+    public Mono<Boolean> existsById(final UUID id) {
+        return databaseClient.sql("SELECT 1 FROM `customer` WHERE `id` = :id")
+                .bind("id", toBytes(id))
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * overwrite customer details in a single statement without loading
+     * the row first, see {@link CustomerRepository#updateById(Customer, Long)}
+     *
+     * @param customer {@link Customer} customer with id populated
+     * @param version  expected version, null updates any version
+     * @return {@link Mono} number of updated rows, 0 when customer does not exist or version differs
+     */
+    public Mono<Long> updateById(final Customer customer, final Long version) {
+        final DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("UPDATE `customer` SET "
+                + "`first_name` = :firstName, `last_name` = :lastName, `email` = :email, "
+                + "`date_of_birth` = :dateOfBirth, `phone_number` = :phoneNumber, `itin_or_ssn` = :itinOrSsn, "
+                + "`version` = `version` + 1 "
+                + "WHERE `id` = :id" + (version != null ? " AND `version` = :version" : ""));
+        final DatabaseClient.GenericExecuteSpec bound = bindCustomer(spec, customer, "");
+        return (version != null ? bound.bind("version", version) : bound)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @param id {@link UUID} customer id
+     * @return {@link Mono} current version of customer, empty when customer does not exist
+     */
+    public Mono<Long> findVersionById(final UUID id) {
+        return databaseClient.sql("SELECT `version` FROM `customer` WHERE `id` = :id")
+                .bind("id", toBytes(id))
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * @param id {@link UUID} customer id
+     * @return {@link Mono} number of deleted rows, 0 when customer does not exist
+     */
+    public Mono<Long> removeById(final UUID id) {
+        return databaseClient.sql("DELETE FROM `customer` WHERE `id` = :id")
+                .bind("id", toBytes(id))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @param sort   {@link Sort} sort properties
+     * @param offset records skipped
+     * @param limit  records returned
+     * @return {@link Flux} customer's of requested range
+     */
+    public Flux<Customer> findAll(final Sort sort, final long offset, final int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer`" + orderBy(sort)
+                        + " LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(this::toCustomer)
+                .all();
+    }
+
+    /**
+     * @return {@link Mono} exact number of customer's
+     */
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) AS `total` FROM `customer`")
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * @return {@link Mono} number of customer's taken from innodb table statistics
+     */
+    public Mono<Long> estimateCount() {
+        return databaseClient.sql("SELECT t.TABLE_ROWS AS `total` FROM information_schema.TABLES t "
+                        + "WHERE t.TABLE_SCHEMA = DATABASE() AND t.TABLE_NAME = 'customer'")
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * forward only scan of customer table, rows are emitted as they
+     * arrive and demand of subscriber is honoured so memory stays flat
+     *
+     * @return {@link Flux} every customer
+     */
+    public Flux<Customer> streamAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM `customer`")
+                .map(this::toCustomer)
+                .all();
+    }
+
+    /**
+     * customer's positioned after keyset values of last returned record,
+     * each sort property is compared in order and id breaks ties so no
+     * offset scan is needed
+     *
+     * @param keys  {@link Map} keyset values by property, empty for first page
+     * @param sort  {@link Sort} sort properties ending with id
+     * @param limit records returned
+     * @return {@link Flux} customer's after the position
+     */
+    public Flux<Customer> findAllAfter(final Map<String, Object> keys, final Sort sort, final int limit) {
+        final List<Sort.Order> orders = sort.toList();
+        final List<String> conditions = new ArrayList<>();
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; !keys.isEmpty() && i < orders.size(); i++) {
+            final List<String> condition = new ArrayList<>();
+            for (int j = 0; j <= i; j++) {
+                final Sort.Order order = orders.get(j);
+                final String operator = j < i ? " = " : order.isAscending() ? " > " : " < ";
+                condition.add("`" + column(order.getProperty()) + "`" + operator + ":key" + j);
+            }
+            conditions.add("(" + String.join(" AND ", condition) + ")");
+        }
+        if (!keys.isEmpty()) {
+            for (int j = 0; j < orders.size(); j++)
+                values.put("key" + j, keyValue(orders.get(j).getProperty(), keys));
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT " + COLUMNS + " FROM `customer`"
+                        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" OR ", conditions))
+                        + orderBy(sort) + " LIMIT :limit")
+                .bind("limit", limit);
+        for (final Map.Entry<String, Object> value : values.entrySet())
+            spec = spec.bind(value.getKey(), value.getValue());
+        return spec.map(this::toCustomer).all();
+    }
+
+    /**
+     * @param sort {@link Sort} sort properties
+     * @return {@link String} order by clause, id is appended so order is stable
+     */
+    private String orderBy(final Sort sort) {
+        final List<String> orders = new ArrayList<>();
+        sort.forEach(order -> orders.add("`" + column(order.getProperty()) + "` " + order.getDirection().name()));
+        if (sort.getOrderFor("id") == null)
+            orders.add("`id` ASC");
+        return " ORDER BY " + String.join(DELIMETER_COMMA + " ", orders);
+    }
+
+    private String column(final String property) {
+        final String column = COLUMN_BY_PROPERTY.get(property);
+        if (column == null)
+            throw new IllegalArgumentException(INVALID_SORT.formatted(property));
+        return column;
+    }
+
+    /**
+     * @param property {@link String} sort property
+     * @param keys     {@link Map} keyset values decoded from cursor
+     * @return {@link Object} bindable keyset value, id is converted to its binary form
+     */
+    private Object keyValue(final String property, final Map<String, Object> keys) {
+        final Object value = keys.get(property);
+        if (value == null)
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        if (!"id".equals(property))
+            return value;
+        try {
+            return toBytes(UUID.fromString(value.toString()));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+    }
+
+    /**
+     * bind customer columns, missing values are bound as null so not
+     * null columns are enforced by database same as blocking repository
+     *
+     * @param spec     {@link DatabaseClient.GenericExecuteSpec} statement
+     * @param customer {@link Customer} customer
+     * @param suffix   {@link String} suffix of parameter names, row index of multi row insert
+     * @return {@link DatabaseClient.GenericExecuteSpec} statement with customer bound
+     */
+    private DatabaseClient.GenericExecuteSpec bindCustomer(final DatabaseClient.GenericExecuteSpec spec,
+                                                           final Customer customer,
+                                                           final String suffix) {
+        DatabaseClient.GenericExecuteSpec bound = spec.bind("id" + suffix, toBytes(customer.getId()));
+        bound = bind(bound, "firstName" + suffix, customer.getFirstName());
+        bound = bind(bound, "lastName" + suffix, customer.getLastName());
+        bound = bind(bound, "email" + suffix, customer.getEmail());
+        bound = bind(bound, "dateOfBirth" + suffix, customer.getDateOfBirth());
+        bound = bind(bound, "phoneNumber" + suffix, customer.getPhoneNumber());
+        return bind(bound, "itinOrSsn" + suffix, customer.getItinOrSsn());
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(final DatabaseClient.GenericExecuteSpec spec,
+                                                   final String name,
+                                                   final String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private Customer toCustomer(final Readable row) {
+        return Customer.builder()
+                .id(toUuid(row.get("id", byte[].class)))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .dateOfBirth(row.get("date_of_birth", String.class))
+                .phoneNumber(row.get("phone_number", String.class))
+                .itinOrSsn(row.get("itin_or_ssn", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private byte[] toBytes(final UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private UUID toUuid(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
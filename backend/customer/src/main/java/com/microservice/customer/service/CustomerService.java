@@ -1,18 +1,40 @@
 package com.microservice.customer.service;
 
+import com.microservice.customer.dto.BatchResult;
 import com.microservice.customer.dto.CustomerDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
-    public CustomerDTO add(final CustomerDTO customerDTO);
+    public CustomerDTO add(final CustomerDTO customerDTO, final String idempotencyKey);
+
+    public List<BatchResult> addAll(final List<CustomerDTO> customerDTOs);
 
-    public CustomerDTO update(final String id, final CustomerDTO customerDTO);
+    public CustomerDTO update(final String id, final CustomerDTO customerDTO, final Long version);
 
     public CustomerDTO get(final String id);
 
+    public Map<String, CustomerDTO> lookup(final Collection<String> ids);
+
     public void delete(final String id);
 
     public Page<CustomerDTO> getAll(final Pageable pageable);
+
+    public Slice<CustomerDTO> getAllSlice(final Pageable pageable);
+
+    public long getEstimatedTotal();
+
+    public void export(final Consumer<CustomerDTO> consumer);
+
+    public Window<CustomerDTO> scroll(final ScrollPosition position, final Sort sort, final int size);
 }
@@ -0,0 +1,41 @@
+package com.microservice.customer.service;
+
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.CustomerDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ReactiveCustomerService {
+
+    public Mono<CustomerDTO> add(final CustomerDTO customerDTO, final String idempotencyKey);
+
+    public Mono<List<BatchResult>> addAll(final List<CustomerDTO> customerDTOs);
+
+    public Mono<CustomerDTO> update(final String id, final CustomerDTO customerDTO, final Long version);
+
+    public Mono<CustomerDTO> get(final String id);
+
+    public Mono<Map<String, CustomerDTO>> lookup(final Collection<String> ids);
+
+    public Mono<Void> delete(final String id);
+
+    public Mono<Page<CustomerDTO>> getAll(final Pageable pageable);
+
+    public Mono<Slice<CustomerDTO>> getAllSlice(final Pageable pageable);
+
+    public Mono<Long> getEstimatedTotal();
+
+    public Flux<CustomerDTO> export();
+
+    public Mono<Window<CustomerDTO>> scroll(final ScrollPosition position, final Sort sort, final int size);
+}
@@ -1,20 +1,77 @@
 package com.microservice.customer.service.impl;
 
+import com.microservice.customer.bloom.EmailBloomFilter;
+import com.microservice.customer.cache.CacheGeneration;
+import com.microservice.customer.cache.TwoTierCache;
+import com.microservice.customer.datasource.ReadYourWrites;
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.BatchStatus;
 import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.CustomerPage;
+import com.microservice.customer.dto.IdempotentResult;
 import com.microservice.customer.entity.Customer;
 import com.microservice.customer.exception.DuplicateException;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
 import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
 import com.microservice.customer.mapper.CustomerMapper;
 import com.microservice.customer.repository.CustomerRepository;
 import com.microservice.customer.service.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.microservice.customer.utils.Constants.BATCH_TOO_LARGE;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_MISSING;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_PAGE;
+import static com.microservice.customer.utils.Constants.CACHE_IDEMPOTENCY;
+import static com.microservice.customer.utils.Constants.CACHE_KEY_CUSTOMER_ID;
+import static com.microservice.customer.utils.Constants.DELIMETER_COMMA;
+import static com.microservice.customer.utils.Constants.IDEMPOTENCY_KEY_REUSED;
+import static com.microservice.customer.utils.Constants.INVALID_CURSOR;
+import static com.microservice.customer.utils.Constants.INVALID_SORT;
+import static com.microservice.customer.utils.Constants.LOOKUP_TOO_LARGE;
 import static com.microservice.customer.utils.Constants.NOT_FOUND;
 import static com.microservice.customer.utils.Constants.RESOURCE_ALREADY_EXISTS;
+import static com.microservice.customer.utils.Constants.RESOURCE_REPEATED_IN_BATCH;
+import static com.microservice.customer.utils.Constants.VERSION_MISMATCH;
 
 /**
  * all customer crud related business logic resides here
@@ -25,92 +82,565 @@ import static com.microservice.customer.utils.Constants.RESOURCE_ALREADY_EXISTS;
 
 @Log4j2
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
+    /**
+     * keyset pagination requires non null sort keys
+     */
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of(
+            "id", "firstName", "lastName", "email", "dateOfBirth");
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final EmailBloomFilter emailBloomFilter;
+    private final CacheGeneration customerPageGeneration;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${customer.batch.max-size:1000}")
+    private int batchMaxSize;
+    @Value("${customer.lookup.max-size:1000}")
+    private int lookupMaxSize;
+    @Value("${customer.page-cache.max-pages:5}")
+    private int pageCacheMaxPages;
+    @Value("${customer.page-cache.max-page-size:100}")
+    private int pageCacheMaxPageSize;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+    @Value("${customer.count.estimate-ttl:60}")
+    private int estimateTTL;
+    private volatile long estimatedTotal;
+    private volatile long estimatedTotalExpiresAt;
 
     /**
-     * before adding customer it fetches existing customer
-     * record by email and return back that information
-     * else it will then crate a new customer and save
-     * that information in db
+     * insert customer in a single statement, unique email index decides
+     * atomically whether customer is new. When email is already taken the
+     * insert is rejected and existing customer is returned instead, so
+     * concurrent requests for same email never create duplicates. Id of
+     * existing customer is read from email index alone and customer is
+     * served from customer cache, loaded from primary on a miss. Result
+     * is kept against idempotency key together with a hash of the
+     * request body, so a retried request is answered from cache without
+     * touching database and a key reused with another body is rejected.
+     * New customer is written to customer cache, so a read right after
+     * the insert is served from cache instead of a replica that may lag,
+     * and cached pages are invalidated. Write is done here and not with a
+     * cache put annotation as that would also apply to a replayed,
+     * possibly outdated, result
      *
-     * @param customerDTO {@link CustomerDTO} customer payload
+     * @param customerDTO    {@link CustomerDTO} customer payload
+     * @param idempotencyKey {@link String} client generated request key, optional
      * @return {@link CustomerDTO} customer payload with id populated
+     * @throws IdempotencyKeyReusedException when key was used with a different request body
      */
     @Override
-    public CustomerDTO add(CustomerDTO customerDTO) {
+    public CustomerDTO add(final CustomerDTO customerDTO, final String idempotencyKey) {
+        if (idempotencyKey == null)
+            return insert(customerDTO);
+        final TwoTierCache idempotencyCache = cache(CACHE_IDEMPOTENCY);
+        final Cache.ValueWrapper cached = idempotencyCache.get(idempotencyKey);
+        if (cached != null && cached.get() instanceof IdempotentResult replay) {
+            if (!replay.matches(customerDTO))
+                throw new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED);
+            log.info("Customer add replayed for idempotency key");
+            return replay.content();
+        }
+        final CustomerDTO result = insert(customerDTO);
+        idempotencyCache.put(idempotencyKey, IdempotentResult.of(customerDTO, result));
+        return result;
+    }
+
+    private CustomerDTO insert(final CustomerDTO customerDTO) {
         log.info("Customer add function started");
         log.debug("Customer information: {}", customerDTO);
-        final Customer customer = customerRepository
-                .findByEmail(customerDTO.getEmail())
-                .orElseGet(() -> customerRepository
-                        .save(customerMapper.toEntity(customerDTO)));
+        CustomerDTO result;
+        try {
+            final Customer customer = customerRepository.saveAndFlush(customerMapper.toEntity(customerDTO));
+            emailBloomFilter.putAll(List.of(customer.getEmail()));
+            customerPageGeneration.bump();
+            result = customerMapper.toDTO(customer);
+            cache(CACHE_CUSTOMER).put(result.getId(), result);
+        } catch (final DataIntegrityViolationException e) {
+            final UUID existingId = customerRepository
+                    .findIdByEmail(customerDTO.getEmail())
+                    .orElseThrow(() -> e);
+            log.info("Customer already exists: {}", existingId);
+            try {
+                result = cache(CACHE_CUSTOMER).get(existingId.toString(), () -> ReadYourWrites
+                        .onPrimary(() -> customerRepository.findById(existingId))
+                        .map(customerMapper::toDTO)
+                        .orElseThrow(() -> e));
+            } catch (final Cache.ValueRetrievalException retrievalException) {
+                if (retrievalException.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw retrievalException;
+            }
+        }
         log.info("Customer add function completed");
-        return customerMapper.toDTO(customer);
+        return result;
+    }
+
+    /**
+     * add customer's in bulk, every item is validated and deduplicated by
+     * email within the batch, emails that already exist are resolved with
+     * a single IN query on primary and returned as is. Emails the email filter
+     * reports as definitely absent are left out of the query. Remaining
+     * customer's are inserted with jdbc batching, each jdbc batch size chunk
+     * in its own transaction. When a concurrent request took an email after
+     * it was checked, the chunk is rolled back, emails of the chunk are
+     * resolved again and the rest of the chunk is retried, so the item is
+     * reported as existing instead of failing the whole batch
+     *
+     * @param customerDTOs {@link List} customer payloads
+     * @return {@link List} result of each item in request order
+     */
+    @Override
+    public List<BatchResult> addAll(final List<CustomerDTO> customerDTOs) {
+        if (customerDTOs.size() > batchMaxSize)
+            throw new IllegalArgumentException(BATCH_TOO_LARGE.formatted(batchMaxSize));
+        log.info("Customer batch add function started: {}", customerDTOs.size());
+        final BatchResult[] results = new BatchResult[customerDTOs.size()];
+        final Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int index = 0; index < customerDTOs.size(); index++) {
+            final CustomerDTO customerDTO = customerDTOs.get(index);
+            final Set<ConstraintViolation<CustomerDTO>> violations = validator.validate(customerDTO);
+            if (!violations.isEmpty() || customerDTO.getEmail() == null) {
+                results[index] = new BatchResult(index, BatchStatus.INVALID, null, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.joining(DELIMETER_COMMA)));
+            } else if (indexByEmail.putIfAbsent(emailKey(customerDTO.getEmail()), index) != null) {
+                results[index] = new BatchResult(index, BatchStatus.DUPLICATE, null, RESOURCE_REPEATED_IN_BATCH);
+            }
+        }
+
+        final Set<String> maybeExisting = indexByEmail.keySet().stream()
+                .filter(emailBloomFilter::mightContain)
+                .collect(Collectors.toSet());
+        final Map<String, Customer> existingByEmail = findAllByEmailIn(maybeExisting);
+        emailBloomFilter.recordFalsePositives(maybeExisting.size() - existingByEmail.size());
+
+        final List<Integer> newIndexes = new ArrayList<>();
+        indexByEmail.forEach((email, index) -> {
+            final Customer existing = existingByEmail.get(email);
+            if (existing != null)
+                results[index] = new BatchResult(index, BatchStatus.EXISTING, customerMapper.toDTO(existing), null);
+            else
+                newIndexes.add(index);
+        });
+
+        final List<String> created = new ArrayList<>();
+        for (int from = 0; from < newIndexes.size(); from += jdbcBatchSize)
+            created.addAll(insertChunk(newIndexes.subList(from, Math.min(from + jdbcBatchSize, newIndexes.size())),
+                    customerDTOs, results));
+        emailBloomFilter.putAll(created);
+        if (!created.isEmpty())
+            customerPageGeneration.bump();
+        log.info("Customer batch add function completed, created: {}, existing: {}",
+                created.size(), indexByEmail.size() - created.size());
+        return List.of(results);
     }
 
     /**
-     * fetch customer information if found then it will update
-     * it or else it will throw exception
+     * update customer with a single statement, no row is read before
+     * it. Customer that does not exist is reported by affected row
+     * count and email owned by another customer is rejected by unique
+     * email index. When expected version is given and customer was
+     * changed since, precondition fails. Without expected version the
+     * new version is read back by primary key within the transaction, the
+     * updated row stays locked until commit so it is the version this
+     * update wrote and updated customer always carries its entity tag.
+     * Updated customer is written through to the customer cache when
+     * expected version was given, otherwise it is evicted. Cached pages
+     * are invalidated after commit
      *
      * @param id          {@link String} customer id
      * @param customerDTO {@link CustomerDTO} updated customer payload detail
+     * @param version     expected version, null updates any version
      * @return {@link CustomerDTO} updated customer payload
      */
     @Override
-    public CustomerDTO update(final String id, CustomerDTO customerDTO) {
-        customerRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException(NOT_FOUND));
+    @Caching(
+            evict = @CacheEvict(value = CACHE_CUSTOMER, key = CACHE_KEY_CUSTOMER_ID, condition = "#version == null"),
+            put = @CachePut(value = CACHE_CUSTOMER, key = CACHE_KEY_CUSTOMER_ID, condition = "#version != null"))
+    @Transactional
+    public CustomerDTO update(final String id, final CustomerDTO customerDTO, final Long version) {
+        final UUID customerId = toId(id);
         if (!id.equalsIgnoreCase(customerDTO.getId()))
             throw new DuplicateException(RESOURCE_ALREADY_EXISTS);
         final Customer customer = customerMapper.toEntity(customerDTO);
-        customer.setId(id);
-        return customerMapper.toDTO(customerRepository.save(customer));
+        customer.setId(customerId);
+        final int updated;
+        try {
+            updated = customerRepository.updateById(customer, version);
+        } catch (final DataIntegrityViolationException e) {
+            throw new DuplicateException(RESOURCE_ALREADY_EXISTS);
+        }
+        if (updated == 0) {
+            if (version != null && customerRepository.existsById(customerId))
+                throw new PreconditionFailedException(VERSION_MISMATCH);
+            throw new NotFoundException(NOT_FOUND);
+        }
+        emailBloomFilter.putAll(List.of(customer.getEmail()));
+        customerPageGeneration.bump();
+        if (version != null)
+            customer.setVersion(version + 1);
+        else
+            customer.setVersion(customerRepository.findVersionById(customerId).orElse(null));
+        return customerMapper.toDTO(customer);
     }
 
     /**
-     * fetch customer details from database if not found
-     * then throws exception
+     * fetch customer details from cache, on cache miss it is
+     * loaded from database and cached, if not found then
+     * throws exception. Ids not found are kept in missing customer
+     * cache for a short time so repeated lookups of unknown ids do
+     * not reach database. Customer is read from primary as the result is
+     * cached for every pod, a lagging replica could bring back a deleted
+     * or stale customer or remember one created moments ago as missing.
+     * Every customer cache keys the canonical lower case id, so ids that
+     * differ in letter case share one entry
      *
      * @param id {@link String} customer id
      * @return {@link CustomerDTO} customer dto payload
      */
     @Override
+    @Cacheable(value = CACHE_CUSTOMER, key = CACHE_KEY_CUSTOMER_ID, sync = true)
     public CustomerDTO get(final String id) {
-        final Customer customer = customerRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException(NOT_FOUND));
+        final UUID uuid = toId(id);
+        final TwoTierCache missingCache = cache(CACHE_CUSTOMER_MISSING);
+        if (missingCache.get(uuid.toString()) != null)
+            throw new NotFoundException(NOT_FOUND);
+        final Customer customer = ReadYourWrites.onPrimary(() -> customerRepository.findById(uuid)).orElse(null);
+        if (customer == null) {
+            missingCache.putAllIfAbsent(Map.of(uuid.toString(), Boolean.TRUE));
+            throw new NotFoundException(NOT_FOUND);
+        }
         return customerMapper.toDTO(customer);
     }
 
     /**
-     * delete customer from database if it does not exists
-     * then throws exception
+     * fetch many customer's at once, cached customer's are read from in-process
+     * cache and a single redis MGET, the rest are loaded with a single IN query
+     * and written back to cache in one pipeline. Ids known to be missing are
+     * skipped, the rest are loaded from primary as they are cached and ids
+     * not found are remembered as missing, see {@link #get(String)}. No transaction is opened
+     * around the lookup so database connection is not held during redis calls
+     *
+     * @param ids {@link Collection} customer ids
+     * @return {@link Map} customer dto payload by id, ids not found are absent
+     */
+    @Override
+    public Map<String, CustomerDTO> lookup(final Collection<String> ids) {
+        if (ids.size() > lookupMaxSize)
+            throw new IllegalArgumentException(LOOKUP_TOO_LARGE.formatted(lookupMaxSize));
+        log.info("Customer lookup function started: {}", ids.size());
+        final Map<String, UUID> keys = new LinkedHashMap<>();
+        for (final String id : ids) {
+            try {
+                final UUID uuid = UUID.fromString(id);
+                keys.put(uuid.toString(), uuid);
+            } catch (final IllegalArgumentException | NullPointerException e) {
+                log.debug("Invalid customer id ignored: {}", id);
+            }
+        }
+        final TwoTierCache customerCache = cache(CACHE_CUSTOMER);
+        final TwoTierCache missingCache = cache(CACHE_CUSTOMER_MISSING);
+        final Map<String, CustomerDTO> customers = new LinkedHashMap<>();
+        customerCache.getAll(keys.keySet()).forEach((key, value) -> customers.put((String) key, (CustomerDTO) value));
+        final int cached = customers.size();
+        keys.keySet().removeAll(customers.keySet());
+        keys.keySet().removeAll(missingCache.getAll(keys.keySet()).keySet());
+        if (!keys.isEmpty()) {
+            final Map<String, CustomerDTO> loaded = ReadYourWrites.onPrimary(() -> findAllById(keys.values()));
+            keys.keySet().removeAll(loaded.keySet());
+            customerCache.putAllIfAbsent(loaded);
+            customers.putAll(loaded);
+            missingCache.putAllIfAbsent(keys.keySet().stream()
+                    .collect(Collectors.toMap(Function.identity(), key -> Boolean.TRUE)));
+        }
+        log.info("Customer lookup function completed, cached: {}, loaded: {}", cached, customers.size() - cached);
+        return customers;
+    }
+
+    /**
+     * delete customer from database with a single statement, if it
+     * does not exists then throws exception, cached customer is evicted
+     * and cached pages are invalidated after commit
      *
      * @param id {@link String} customer id
      */
     @Override
+    @CacheEvict(value = CACHE_CUSTOMER, key = CACHE_KEY_CUSTOMER_ID)
+    @Transactional
     public void delete(final String id) {
-        customerRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException(NOT_FOUND));
-        customerRepository.deleteById(id);
+        if (customerRepository.removeById(toId(id)) == 0)
+            throw new NotFoundException(NOT_FOUND);
+        customerPageGeneration.bump();
     }
 
     /**
-     * return all customer's from database with paginated properties
+     * return all customer's from database with paginated properties. Configured
+     * number of first pages up to configured size are cached by page, size and sort
+     * under current page generation, every customer change moves to next
+     * generation so all cached pages go stale at once. Pages of a new
+     * generation are loaded from primary so a page cached right after a
+     * change never misses it due to replica lag. When generation can not
+     * be read page is loaded without cache
      *
      * @param pageable   {@link Pageable} paginated properties
+     * @return {@link Page} customer's page
      */
     @Override
     public Page<CustomerDTO> getAll(final Pageable pageable) {
+        final Long generation = isPageCached(pageable) ? customerPageGeneration.current() : null;
+        if (generation == null)
+            return findAll(pageable);
+        final String key = String.join(":",
+                String.valueOf(generation),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                pageable.getSort().toString());
+        try {
+            return cache(CACHE_CUSTOMER_PAGE)
+                    .get(key, () -> CustomerPage.of(ReadYourWrites.onPrimary(() -> findAll(pageable))))
+                    .toPage(pageable);
+        } catch (final Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * return customer's from database with paginated properties without
+     * counting total records, one extra record is fetched to know whether
+     * next page exists
+     *
+     * @param pageable {@link Pageable} paginated properties
+     * @return {@link Slice} customer's slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CustomerDTO> getAllSlice(final Pageable pageable) {
+        return customerRepository
+                .findAllBy(pageable)
+                .map(customerMapper::toDTO);
+    }
+
+    /**
+     * approximate number of customer's taken from innodb table statistics
+     * instead of a full count, value is kept for configured seconds
+     *
+     * @return estimated total customer's
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long getEstimatedTotal() {
+        final long now = System.currentTimeMillis();
+        if (now >= estimatedTotalExpiresAt) {
+            final Long estimate = customerRepository.estimateCount();
+            estimatedTotal = estimate != null ? estimate : 0L;
+            estimatedTotalExpiresAt = now + estimateTTL * 1000L;
+        }
+        return estimatedTotal;
+    }
+
+    /**
+     * stream every customer from database in a single forward only pass,
+     * each customer is handed over to consumer and detached right away so
+     * heap usage stays flat regardless of table size
+     *
+     * @param consumer {@link Consumer} customer consumer
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(final Consumer<CustomerDTO> consumer) {
+        log.info("Customer export function started");
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                consumer.accept(customerMapper.toDTO(customer));
+                entityManager.detach(customer);
+            });
+        }
+        log.info("Customer export function completed");
+    }
+
+    /**
+     * return customer's from database positioned after the provided keyset,
+     * no offset scan and no count query is executed so every page costs
+     * the same. Customer id is appended to sort by the keyset query to
+     * make the position unique
+     *
+     * @param position {@link ScrollPosition} keyset position of last returned record
+     * @param sort     {@link Sort} sort properties
+     * @param size     number of records to return
+     * @return {@link Window} customer's window with position of each record
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Window<CustomerDTO> scroll(final ScrollPosition position, final Sort sort, final int size) {
+        sort.stream()
+                .filter(order -> !KEYSET_SORT_PROPERTIES.contains(order.getProperty()))
+                .findFirst()
+                .ifPresent(order -> {
+                    throw new IllegalArgumentException(INVALID_SORT.formatted(order.getProperty()));
+                });
+        return customerRepository
+                .findAllBy(toEntityPosition(position), sort, Limit.of(size))
+                .map(customerMapper::toDTO);
+    }
+
+    /**
+     * @param pageable {@link Pageable} paginated properties
+     * @return {@link Page} customer's page loaded from database
+     */
+    private Page<CustomerDTO> findAll(final Pageable pageable) {
         return customerRepository
                 .findAll(pageable)
                 .map(customerMapper::toDTO);
     }
 
+    /**
+     * @param pageable {@link Pageable} paginated properties
+     * @return whether page is within first pages kept in page cache
+     */
+    private boolean isPageCached(final Pageable pageable) {
+        return pageable.isPaged()
+                && pageable.getPageNumber() < pageCacheMaxPages
+                && pageable.getPageSize() <= pageCacheMaxPageSize;
+    }
+
+    /**
+     * email comparison key, matches case-insensitive collation of database
+     *
+     * @param email {@link String} customer email
+     * @return {@link String} normalized email
+     */
+    private String emailKey(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * insert customer's of a chunk in one transaction and record created
+     * ones. When unique email index rejects the chunk, emails of the chunk
+     * taken meanwhile are recorded as existing and the rest is retried, a
+     * violation not caused by a taken email is rethrown
+     *
+     * @param indexes      {@link List} request indexes of chunk
+     * @param customerDTOs {@link List} customer payloads of request
+     * @param results      result of each item in request order
+     * @return {@link List} emails of created customer's
+     */
+    private List<String> insertChunk(final List<Integer> indexes,
+                                     final List<CustomerDTO> customerDTOs,
+                                     final BatchResult[] results) {
+        if (indexes.isEmpty())
+            return List.of();
+        final List<Customer> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                final List<Customer> inserted = customerRepository.saveAll(indexes.stream()
+                        .map(index -> customerMapper.toEntity(customerDTOs.get(index)))
+                        .toList());
+                customerRepository.flush();
+                return inserted;
+            });
+        } catch (final DataIntegrityViolationException e) {
+            final Map<String, Customer> existingByEmail = findAllByEmailIn(indexes.stream()
+                    .map(index -> emailKey(customerDTOs.get(index).getEmail()))
+                    .collect(Collectors.toSet()));
+            if (existingByEmail.isEmpty())
+                throw e;
+            log.info("Customer batch chunk raced with concurrent insert, existing: {}", existingByEmail.size());
+            final List<Integer> remaining = new ArrayList<>();
+            for (final int index : indexes) {
+                final Customer existing = existingByEmail.get(emailKey(customerDTOs.get(index).getEmail()));
+                if (existing != null)
+                    results[index] = new BatchResult(index, BatchStatus.EXISTING, customerMapper.toDTO(existing), null);
+                else
+                    remaining.add(index);
+            }
+            return insertChunk(remaining, customerDTOs, results);
+        }
+        final List<String> emails = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            final int index = indexes.get(i);
+            results[index] = new BatchResult(index, BatchStatus.CREATED, customerMapper.toDTO(saved.get(i)), null);
+            emails.add(saved.get(i).getEmail());
+        }
+        return emails;
+    }
+
+    /**
+     * resolve taken emails on primary so emails committed moments ago
+     * are not missed due to replica lag
+     *
+     * @param emails {@link Collection} normalized emails
+     * @return {@link Map} existing customer by normalized email
+     */
+    private Map<String, Customer> findAllByEmailIn(final Collection<String> emails) {
+        if (emails.isEmpty())
+            return Map.of();
+        return ReadYourWrites.onPrimary(() -> customerRepository.findAllByEmailIn(emails)).stream()
+                .collect(Collectors.toMap(customer -> emailKey(customer.getEmail()),
+                        Function.identity(),
+                        (first, second) -> first));
+    }
+
+    /**
+     * @param ids {@link Collection} customer ids
+     * @return {@link Map} customer dto payload by id of customer's found
+     */
+    private Map<String, CustomerDTO> findAllById(final Collection<UUID> ids) {
+        return customerRepository.findAllById(ids).stream()
+                .map(customerMapper::toDTO)
+                .collect(Collectors.toMap(CustomerDTO::getId, Function.identity()));
+    }
+
+    /**
+     * customer id is exposed as string while stored as uuid, id that
+     * is not a valid uuid can not exist
+     *
+     * @param id {@link String} customer id
+     * @return {@link UUID} customer id
+     */
+    private UUID toId(final String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (final IllegalArgumentException e) {
+            throw new NotFoundException(NOT_FOUND);
+        }
+    }
+
+    /**
+     * @param name {@link String} cache name
+     * @return {@link TwoTierCache} cache with bulk operations
+     */
+    private TwoTierCache cache(final String name) {
+        return (TwoTierCache) Objects.requireNonNull(cacheManager.getCache(name));
+    }
+
+    /**
+     * keyset values decoded from cursor are strings, id key is converted
+     * back to uuid so it can be compared with id column
+     *
+     * @param position {@link ScrollPosition} decoded scroll position
+     * @return {@link ScrollPosition} scroll position with typed keys
+     */
+    private ScrollPosition toEntityPosition(final ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || !(keyset.getKeys().get("id") instanceof String id))
+            return position;
+        final Map<String, Object> keys = new LinkedHashMap<>(keyset.getKeys());
+        try {
+            keys.put("id", UUID.fromString(id));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
 }
@@ -0,0 +1,628 @@
+package com.microservice.customer.service.impl;
+
+import com.microservice.customer.cache.ReactiveCacheGeneration;
+import com.microservice.customer.cache.ReactiveRedisCache;
+import com.microservice.customer.cache.ReactiveRedisCacheManager;
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.BatchStatus;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.CustomerPage;
+import com.microservice.customer.dto.IdempotentResult;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.exception.DuplicateException;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
+import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.mapper.CustomerMapper;
+import com.microservice.customer.repository.ReactiveCustomerRepository;
+import com.microservice.customer.service.ReactiveCustomerService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.microservice.customer.utils.Constants.BATCH_TOO_LARGE;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_MISSING;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_PAGE;
+import static com.microservice.customer.utils.Constants.CACHE_IDEMPOTENCY;
+import static com.microservice.customer.utils.Constants.DELIMETER_COMMA;
+import static com.microservice.customer.utils.Constants.EMAIL_FILTER_CHANNEL;
+import static com.microservice.customer.utils.Constants.EMAIL_FILTER_DELIMITER;
+import static com.microservice.customer.utils.Constants.IDEMPOTENCY_KEY_REUSED;
+import static com.microservice.customer.utils.Constants.INVALID_SORT;
+import static com.microservice.customer.utils.Constants.LOOKUP_TOO_LARGE;
+import static com.microservice.customer.utils.Constants.NOT_FOUND;
+import static com.microservice.customer.utils.Constants.RESOURCE_ALREADY_EXISTS;
+import static com.microservice.customer.utils.Constants.RESOURCE_REPEATED_IN_BATCH;
+import static com.microservice.customer.utils.Constants.VERSION_MISMATCH;
+
+/**
+ * customer crud business logic of reactive serving mode, behaves the
+ * same as {@link CustomerServiceImpl} on top of non blocking database
+ * and redis access. Caches, idempotency keys, page generation and email
+ * filter messages are shared with pods serving blocking requests. There
+ * is no email filter in this mode so existing emails of a batch are
+ * always resolved with a single IN query
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    /**
+     * keyset pagination requires non null sort keys
+     */
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of(
+            "id", "firstName", "lastName", "email", "dateOfBirth");
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final Validator validator;
+    private final ReactiveRedisCacheManager cacheManager;
+    private final ReactiveCacheGeneration customerPageGeneration;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${customer.batch.max-size:1000}")
+    private int batchMaxSize;
+    @Value("${customer.lookup.max-size:1000}")
+    private int lookupMaxSize;
+    @Value("${customer.page-cache.max-pages:5}")
+    private int pageCacheMaxPages;
+    @Value("${customer.page-cache.max-page-size:100}")
+    private int pageCacheMaxPageSize;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+    @Value("${customer.count.estimate-ttl:60}")
+    private int estimateTTL;
+    private volatile long estimatedTotal;
+    private volatile long estimatedTotalExpiresAt;
+
+    /**
+     * insert customer in a single statement, unique email index decides
+     * atomically whether customer is new, when email is already taken
+     * existing customer is returned instead. Result is kept against
+     * idempotency key together with a hash of the request body so a
+     * retried request is answered from cache and a key reused with
+     * another body is rejected, new customer is written to customer cache
+     *
+     * @param customerDTO    {@link CustomerDTO} customer payload
+     * @param idempotencyKey {@link String} client generated request key, optional
+     * @return {@link Mono} customer payload with id populated, {@link IdempotencyKeyReusedException}
+     * when key was used with a different request body
+     */
+    @Override
+    public Mono<CustomerDTO> add(final CustomerDTO customerDTO, final String idempotencyKey) {
+        final Mono<CustomerDTO> add = Mono.defer(() -> insert(customerDTO));
+        if (idempotencyKey == null)
+            return add;
+        final ReactiveRedisCache idempotencyCache = cache(CACHE_IDEMPOTENCY);
+        return idempotencyCache.get(idempotencyKey)
+                .ofType(IdempotentResult.class)
+                .flatMap(replay -> replay.matches(customerDTO)
+                        ? Mono.just(replay.content())
+                        : Mono.<CustomerDTO>error(new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED)))
+                .switchIfEmpty(add.flatMap(result -> idempotencyCache
+                        .put(idempotencyKey, IdempotentResult.of(customerDTO, result))
+                        .thenReturn(result)));
+    }
+
+    /**
+     * add customer's in bulk, see {@link CustomerServiceImpl#addAll(List)}.
+     * New customer's are inserted with one multi row statement per jdbc
+     * batch size, each in its own transaction. A chunk rejected because a
+     * concurrent request took one of its emails is resolved again and the
+     * rest is retried. Cached pages are invalidated once every chunk is
+     * committed
+     *
+     * @param customerDTOs {@link List} customer payloads
+     * @return {@link Mono} result of each item in request order
+     */
+    @Override
+    public Mono<List<BatchResult>> addAll(final List<CustomerDTO> customerDTOs) {
+        if (customerDTOs.size() > batchMaxSize)
+            return Mono.error(new IllegalArgumentException(BATCH_TOO_LARGE.formatted(batchMaxSize)));
+        log.info("Customer batch add function started: {}", customerDTOs.size());
+        final BatchResult[] results = new BatchResult[customerDTOs.size()];
+        final Map<String, Integer> indexByEmail = new LinkedHashMap<>();
+        for (int index = 0; index < customerDTOs.size(); index++) {
+            final CustomerDTO customerDTO = customerDTOs.get(index);
+            final Set<ConstraintViolation<CustomerDTO>> violations = validator.validate(customerDTO);
+            if (!violations.isEmpty() || customerDTO.getEmail() == null) {
+                results[index] = new BatchResult(index, BatchStatus.INVALID, null, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.joining(DELIMETER_COMMA)));
+            } else if (indexByEmail.putIfAbsent(emailKey(customerDTO.getEmail()), index) != null) {
+                results[index] = new BatchResult(index, BatchStatus.DUPLICATE, null, RESOURCE_REPEATED_IN_BATCH);
+            }
+        }
+
+        return findAllByEmailIn(indexByEmail.keySet())
+                .flatMap(existingByEmail -> {
+                    final List<Integer> newIndexes = new ArrayList<>();
+                    indexByEmail.forEach((email, index) -> {
+                        final Customer existing = existingByEmail.get(email);
+                        if (existing != null)
+                            results[index] = new BatchResult(index, BatchStatus.EXISTING,
+                                    customerMapper.toDTO(existing), null);
+                        else
+                            newIndexes.add(index);
+                    });
+                    final List<List<Integer>> chunks = new ArrayList<>();
+                    for (int from = 0; from < newIndexes.size(); from += jdbcBatchSize)
+                        chunks.add(newIndexes.subList(from, Math.min(from + jdbcBatchSize, newIndexes.size())));
+                    return Flux.fromIterable(chunks)
+                            .concatMap(chunk -> insertChunk(chunk, customerDTOs, results))
+                            .collectList();
+                })
+                .flatMap(chunks -> {
+                    final List<String> created = chunks.stream().flatMap(List::stream).toList();
+                    log.info("Customer batch add function completed, created: {}, existing: {}",
+                            created.size(), indexByEmail.size() - created.size());
+                    return created.isEmpty() ? Mono.<Void>empty() : customersChanged(created);
+                })
+                .then(Mono.fromSupplier(() -> List.of(results)));
+    }
+
+    /**
+     * update customer with a single statement, new version is read back
+     * in the same transaction when no expected version is given, see
+     * {@link CustomerServiceImpl#update(String, CustomerDTO, Long)}
+     *
+     * @param id          {@link String} customer id
+     * @param customerDTO {@link CustomerDTO} updated customer payload detail
+     * @param version     expected version, null updates any version
+     * @return {@link Mono} updated customer payload
+     */
+    @Override
+    public Mono<CustomerDTO> update(final String id, final CustomerDTO customerDTO, final Long version) {
+        return Mono.defer(() -> {
+            final UUID customerId = toId(id);
+            if (!id.equalsIgnoreCase(customerDTO.getId()))
+                return Mono.error(new DuplicateException(RESOURCE_ALREADY_EXISTS));
+            final Customer customer = customerMapper.toEntity(customerDTO);
+            customer.setId(customerId);
+            return customerRepository.updateById(customer, version)
+                    .onErrorMap(DataIntegrityViolationException.class,
+                            e -> new DuplicateException(RESOURCE_ALREADY_EXISTS))
+                    .flatMap(updated -> {
+                        if (updated > 0)
+                            return (version != null
+                                    ? Mono.just(version + 1)
+                                    : customerRepository.findVersionById(customerId))
+                                    .map(newVersion -> {
+                                        customer.setVersion(newVersion);
+                                        return customer;
+                                    })
+                                    .defaultIfEmpty(customer);
+                        if (version == null)
+                            return Mono.error(new NotFoundException(NOT_FOUND));
+                        return customerRepository.existsById(customerId)
+                                .flatMap(exists -> Mono.error(exists
+                                        ? new PreconditionFailedException(VERSION_MISMATCH)
+                                        : new NotFoundException(NOT_FOUND)));
+                    })
+                    .as(transactionalOperator::transactional);
+        }).flatMap(customer -> {
+            final CustomerDTO updated = customerMapper.toDTO(customer);
+            final ReactiveRedisCache customerCache = cache(CACHE_CUSTOMER);
+            return customersChanged(List.of(customer.getEmail()))
+                    .then(version != null
+                            ? customerCache.put(updated.getId(), updated)
+                            : customerCache.evict(updated.getId()))
+                    .thenReturn(updated);
+        });
+    }
+
+    /**
+     * fetch customer details from cache, on cache miss it is loaded from
+     * database and cached, ids not found are kept in missing customer cache
+     *
+     * @param id {@link String} customer id
+     * @return {@link Mono} customer dto payload
+     */
+    @Override
+    public Mono<CustomerDTO> get(final String id) {
+        return Mono.defer(() -> {
+            final UUID uuid = toId(id);
+            final String key = uuid.toString();
+            final ReactiveRedisCache missingCache = cache(CACHE_CUSTOMER_MISSING);
+            return cache(CACHE_CUSTOMER).get(key, () -> missingCache.get(key)
+                    .flatMap(missing -> Mono.<CustomerDTO>error(new NotFoundException(NOT_FOUND)))
+                    .switchIfEmpty(customerRepository.findById(uuid)
+                            .map(customerMapper::toDTO)
+                            .switchIfEmpty(missingCache.putAllIfAbsent(Map.of(key, Boolean.TRUE))
+                                    .then(Mono.error(new NotFoundException(NOT_FOUND))))));
+        });
+    }
+
+    /**
+     * fetch many customer's at once, cached customer's are read with a single
+     * redis MGET, the rest are loaded with a single IN query and written back
+     * to cache. Ids known to be missing are skipped and ids not found are
+     * remembered as missing
+     *
+     * @param ids {@link Collection} customer ids
+     * @return {@link Mono} customer dto payload by id, ids not found are absent
+     */
+    @Override
+    public Mono<Map<String, CustomerDTO>> lookup(final Collection<String> ids) {
+        if (ids.size() > lookupMaxSize)
+            return Mono.error(new IllegalArgumentException(LOOKUP_TOO_LARGE.formatted(lookupMaxSize)));
+        log.info("Customer lookup function started: {}", ids.size());
+        final Map<String, UUID> keys = new LinkedHashMap<>();
+        for (final String id : ids) {
+            try {
+                final UUID uuid = UUID.fromString(id);
+                keys.put(uuid.toString(), uuid);
+            } catch (final IllegalArgumentException | NullPointerException e) {
+                log.debug("Invalid customer id ignored: {}", id);
+            }
+        }
+        final ReactiveRedisCache customerCache = cache(CACHE_CUSTOMER);
+        final ReactiveRedisCache missingCache = cache(CACHE_CUSTOMER_MISSING);
+        final Map<String, CustomerDTO> customers = new LinkedHashMap<>();
+        return customerCache.getAll(keys.keySet())
+                .flatMap(cached -> {
+                    cached.forEach((key, value) -> customers.put(key, (CustomerDTO) value));
+                    keys.keySet().removeAll(customers.keySet());
+                    return missingCache.getAll(keys.keySet());
+                })
+                .flatMap(missing -> {
+                    keys.keySet().removeAll(missing.keySet());
+                    if (keys.isEmpty())
+                        return Mono.just(customers);
+                    return customerRepository.findAllById(keys.values())
+                            .map(customerMapper::toDTO)
+                            .collectMap(CustomerDTO::getId, Function.identity())
+                            .flatMap(loaded -> {
+                                customers.putAll(loaded);
+                                keys.keySet().removeAll(loaded.keySet());
+                                return customerCache.putAllIfAbsent(loaded)
+                                        .then(missingCache.putAllIfAbsent(keys.keySet().stream()
+                                                .collect(Collectors.toMap(Function.identity(), key -> Boolean.TRUE))))
+                                        .thenReturn(customers);
+                            });
+                })
+                .doOnNext(result -> log.info("Customer lookup function completed: {}", result.size()));
+    }
+
+    /**
+     * delete customer from database with a single statement, if it does
+     * not exists then fails with not found, cached customer is evicted and
+     * cached pages are invalidated
+     *
+     * @param id {@link String} customer id
+     * @return {@link Mono} completion
+     */
+    @Override
+    public Mono<Void> delete(final String id) {
+        return Mono.defer(() -> {
+            final UUID customerId = toId(id);
+            return customerRepository.removeById(customerId)
+                    .flatMap(deleted -> deleted == 0
+                            ? Mono.error(new NotFoundException(NOT_FOUND))
+                            : cache(CACHE_CUSTOMER).evict(customerId.toString()).then(customerPageGeneration.bump()));
+        });
+    }
+
+    /**
+     * return customer's with paginated properties, first pages are cached
+     * under current page generation, see {@link CustomerServiceImpl#getAll(Pageable)}
+     *
+     * @param pageable {@link Pageable} paginated properties
+     * @return {@link Mono} customer's page
+     */
+    @Override
+    public Mono<Page<CustomerDTO>> getAll(final Pageable pageable) {
+        if (!isPageCached(pageable))
+            return findAll(pageable);
+        return customerPageGeneration.current()
+                .flatMap(generation -> cache(CACHE_CUSTOMER_PAGE)
+                        .get(String.join(":",
+                                        String.valueOf(generation),
+                                        String.valueOf(pageable.getPageNumber()),
+                                        String.valueOf(pageable.getPageSize()),
+                                        pageable.getSort().toString()),
+                                () -> findAll(pageable).map(CustomerPage::of))
+                        .map(page -> ((CustomerPage) page).toPage(pageable)))
+                .switchIfEmpty(Mono.defer(() -> findAll(pageable)));
+    }
+
+    /**
+     * return customer's with paginated properties without counting total
+     * records, one extra record is fetched to know whether next page exists
+     *
+     * @param pageable {@link Pageable} paginated properties
+     * @return {@link Mono} customer's slice
+     */
+    @Override
+    public Mono<Slice<CustomerDTO>> getAllSlice(final Pageable pageable) {
+        return Mono.defer(() -> customerRepository
+                        .findAll(pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1)
+                        .map(customerMapper::toDTO)
+                        .collectList())
+                .map(content -> {
+                    final boolean hasNext = content.size() > pageable.getPageSize();
+                    return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content,
+                            pageable,
+                            hasNext);
+                });
+    }
+
+    /**
+     * approximate number of customer's taken from innodb table statistics
+     * instead of a full count, value is kept for configured seconds
+     *
+     * @return {@link Mono} estimated total customer's
+     */
+    @Override
+    public Mono<Long> getEstimatedTotal() {
+        final long now = System.currentTimeMillis();
+        if (now < estimatedTotalExpiresAt)
+            return Mono.just(estimatedTotal);
+        return customerRepository.estimateCount()
+                .defaultIfEmpty(0L)
+                .doOnNext(estimate -> {
+                    estimatedTotal = estimate;
+                    estimatedTotalExpiresAt = now + estimateTTL * 1000L;
+                });
+    }
+
+    /**
+     * stream every customer from database in a single forward only pass,
+     * rows are read as fast as the client consumes them
+     *
+     * @return {@link Flux} every customer
+     */
+    @Override
+    public Flux<CustomerDTO> export() {
+        return customerRepository.streamAll()
+                .map(customerMapper::toDTO)
+                .doOnSubscribe(subscription -> log.info("Customer export function started"))
+                .doOnComplete(() -> log.info("Customer export function completed"));
+    }
+
+    /**
+     * return customer's positioned after the provided keyset, customer id is
+     * appended to sort to make the position unique
+     *
+     * @param position {@link ScrollPosition} keyset position of last returned record
+     * @param sort     {@link Sort} sort properties
+     * @param size     number of records to return
+     * @return {@link Mono} customer's window with position of each record
+     */
+    @Override
+    public Mono<Window<CustomerDTO>> scroll(final ScrollPosition position, final Sort sort, final int size) {
+        final Sort.Order unsupported = sort.stream()
+                .filter(order -> !KEYSET_SORT_PROPERTIES.contains(order.getProperty()))
+                .findFirst()
+                .orElse(null);
+        if (unsupported != null)
+            return Mono.error(new IllegalArgumentException(INVALID_SORT.formatted(unsupported.getProperty())));
+        final Sort keysetSort = sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+        final Map<String, Object> keys = position instanceof KeysetScrollPosition keyset
+                ? keyset.getKeys()
+                : Map.of();
+        return Mono.defer(() -> customerRepository.findAllAfter(keys, keysetSort, size + 1)
+                        .map(customerMapper::toDTO)
+                        .collectList())
+                .map(content -> {
+                    final boolean hasNext = content.size() > size;
+                    final List<CustomerDTO> window = hasNext ? content.subList(0, size) : content;
+                    return Window.from(window,
+                            index -> ScrollPosition.forward(keysOf(window.get(index), keysetSort)),
+                            hasNext);
+                });
+    }
+
+    /**
+     * page content followed by count, count is skipped when first page
+     * is not full since total is known from content
+     *
+     * @param pageable {@link Pageable} paginated properties
+     * @return {@link Mono} customer's page loaded from database
+     */
+    private Mono<Page<CustomerDTO>> findAll(final Pageable pageable) {
+        return Mono.defer(() -> customerRepository
+                        .findAll(pageable.getSort(), pageable.getOffset(), pageable.getPageSize())
+                        .map(customerMapper::toDTO)
+                        .collectList())
+                .flatMap(content -> pageable.getOffset() == 0 && content.size() < pageable.getPageSize()
+                        ? Mono.<Page<CustomerDTO>>just(new PageImpl<>(content, pageable, content.size()))
+                        : customerRepository.count()
+                        .map(total -> new PageImpl<>(content, pageable, total)));
+    }
+
+    /**
+     * @param pageable {@link Pageable} paginated properties
+     * @return whether page is within first pages kept in page cache
+     */
+    private boolean isPageCached(final Pageable pageable) {
+        return pageable.isPaged()
+                && pageable.getPageNumber() < pageCacheMaxPages
+                && pageable.getPageSize() <= pageCacheMaxPageSize;
+    }
+
+    /**
+     * new or changed emails are published to email filter of blocking
+     * pods and cached pages are invalidated. Failure to publish is
+     * logged only, filter rebuild recovers missed emails
+     *
+     * @param emails {@link Collection} changed customer emails
+     * @return {@link Mono} completion
+     */
+    private Mono<Void> customersChanged(final Collection<String> emails) {
+        return redisTemplate.convertAndSend(EMAIL_FILTER_CHANNEL, String.join(EMAIL_FILTER_DELIMITER, emails))
+                .onErrorResume(e -> {
+                    log.warn("Could not publish emails to email filter: {}, error: {}", emails.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then(customerPageGeneration.bump());
+    }
+
+    /**
+     * insert customer's of a chunk in one transaction and record created
+     * ones, see {@link CustomerServiceImpl#addAll(List)}
+     *
+     * @param indexes      {@link List} request indexes of chunk
+     * @param customerDTOs {@link List} customer payloads of request
+     * @param results      result of each item in request order
+     * @return {@link Mono} emails of created customer's
+     */
+    private Mono<List<String>> insertChunk(final List<Integer> indexes,
+                                           final List<CustomerDTO> customerDTOs,
+                                           final BatchResult[] results) {
+        if (indexes.isEmpty())
+            return Mono.just(List.of());
+        return Mono.defer(() -> customerRepository.insertAll(indexes.stream()
+                                .map(index -> customerMapper.toEntity(customerDTOs.get(index)))
+                                .toList())
+                        .collectList())
+                .as(transactionalOperator::transactional)
+                .map(saved -> {
+                    final List<String> emails = new ArrayList<>();
+                    for (int i = 0; i < saved.size(); i++) {
+                        final int index = indexes.get(i);
+                        results[index] = new BatchResult(index, BatchStatus.CREATED,
+                                customerMapper.toDTO(saved.get(i)), null);
+                        emails.add(saved.get(i).getEmail());
+                    }
+                    return emails;
+                })
+                .onErrorResume(DataIntegrityViolationException.class, e -> findAllByEmailIn(indexes.stream()
+                        .map(index -> emailKey(customerDTOs.get(index).getEmail()))
+                        .collect(Collectors.toSet()))
+                        .flatMap(existingByEmail -> {
+                            if (existingByEmail.isEmpty())
+                                return Mono.error(e);
+                            log.info("Customer batch chunk raced with concurrent insert, existing: {}",
+                                    existingByEmail.size());
+                            final List<Integer> remaining = new ArrayList<>();
+                            for (final int index : indexes) {
+                                final Customer existing = existingByEmail.get(emailKey(customerDTOs.get(index).getEmail()));
+                                if (existing != null)
+                                    results[index] = new BatchResult(index, BatchStatus.EXISTING,
+                                            customerMapper.toDTO(existing), null);
+                                else
+                                    remaining.add(index);
+                            }
+                            return insertChunk(remaining, customerDTOs, results);
+                        }));
+    }
+
+    /**
+     * @param emails {@link Collection} normalized emails
+     * @return {@link Mono} existing customer by normalized email
+     */
+    private Mono<Map<String, Customer>> findAllByEmailIn(final Collection<String> emails) {
+        if (emails.isEmpty())
+            return Mono.just(Map.of());
+        return customerRepository.findAllByEmailIn(emails)
+                .collectMap(customer -> emailKey(customer.getEmail()), Function.identity());
+    }
+
+    /**
+     * @param customerDTO {@link CustomerDTO} customer payload
+     * @return {@link Mono} inserted or already existing customer
+     */
+    private Mono<CustomerDTO> insert(final CustomerDTO customerDTO) {
+        log.info("Customer add function started");
+        log.debug("Customer information: {}", customerDTO);
+        return customerRepository.insertAll(List.of(customerMapper.toEntity(customerDTO)))
+                .next()
+                .map(customerMapper::toDTO)
+                .flatMap(customer -> customersChanged(List.of(customer.getEmail()))
+                        .then(cache(CACHE_CUSTOMER).put(customer.getId(), customer))
+                        .thenReturn(customer))
+                .onErrorResume(DataIntegrityViolationException.class, e -> customerRepository
+                        .findByEmail(customerDTO.getEmail())
+                        .doOnNext(customer -> log.info("Customer already exists: {}", customer.getId()))
+                        .map(customerMapper::toDTO)
+                        .switchIfEmpty(Mono.error(e)))
+                .doOnNext(customer -> log.info("Customer add function completed"));
+    }
+
+    /**
+     * @param customerDTO {@link CustomerDTO} customer payload
+     * @param sort        {@link Sort} keyset sort properties
+     * @return {@link Map} keyset values of customer by property
+     */
+    private Map<String, Object> keysOf(final CustomerDTO customerDTO, final Sort sort) {
+        final Map<String, Object> keys = new LinkedHashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), switch (order.getProperty()) {
+            case "firstName" -> customerDTO.getFirstName();
+            case "lastName" -> customerDTO.getLastName();
+            case "email" -> customerDTO.getEmail();
+            case "dateOfBirth" -> customerDTO.getDateOfBirth();
+            default -> customerDTO.getId();
+        }));
+        return keys;
+    }
+
+    /**
+     * email comparison key, matches case-insensitive collation of database
+     *
+     * @param email {@link String} customer email
+     * @return {@link String} normalized email
+     */
+    private String emailKey(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * customer id is exposed as string while stored as uuid, id that
+     * is not a valid uuid can not exist
+     *
+     * @param id {@link String} customer id
+     * @return {@link UUID} customer id
+     */
+    private UUID toId(final String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (final IllegalArgumentException e) {
+            throw new NotFoundException(NOT_FOUND);
+        }
+    }
+
+    /**
+     * @param name {@link String} cache name
+     * @return {@link ReactiveRedisCache} cache
+     */
+    private ReactiveRedisCache cache(final String name) {
+        return cacheManager.getCache(name);
+    }
+}
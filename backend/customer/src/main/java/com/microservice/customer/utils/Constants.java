@@ -22,7 +22,36 @@ public final class Constants {
      */
 
     public static final String CACHE_CUSTOMER = "customer";
+    public static final String CACHE_CUSTOMER_MISSING = "customer-missing";
+    public static final String CACHE_CUSTOMER_PAGE = "customer-page";
+    public static final String CACHE_CUSTOMER_PAGE_GENERATION = "customer-page-generation";
+    public static final String CACHE_IDEMPOTENCY = "idempotency";
+    public static final String CACHE_KEY_CUSTOMER_ID = "T(com.microservice.customer.helper.uuid.CanonicalId).of(#id)";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     public static final String CUSTOMER_SERVICE = "customer-service";
+    public static final String BULKHEAD_ADD = "customer-add";
+    public static final String BULKHEAD_BATCH = "customer-batch";
+    public static final String BULKHEAD_UPDATE = "customer-update";
+    public static final String BULKHEAD_GET = "customer-get";
+    public static final String BULKHEAD_DELETE = "customer-delete";
+    public static final String BULKHEAD_LOOKUP = "customer-lookup";
+    public static final String BULKHEAD_PAGE = "customer-page";
+
+    public static final String CACHE_INVALIDATION_CHANNEL = "cache-invalidation";
+    public static final String CACHE_INVALIDATION_DELIMITER = "|";
+    public static final String CACHE_INVALIDATION_CLEAR = "*";
+    public static final String CACHE_LOCK_SUFFIX = "~lock";
+
+    public static final String EMAIL_FILTER_CHANNEL = "customer-email-filter";
+    public static final String EMAIL_FILTER_DELIMITER = "\n";
+
+    public static final String CACHE_TIER_TAG = "tier";
+    public static final String CACHE_TIER_L1 = "l1";
+    public static final String CACHE_TIER_L2 = "l2";
+
+    public static final String READ_PRIMARY_COOKIE = "read-primary-until";
+    public static final String PRIMARY_POOL = "primary";
+    public static final String REPLICA_POOL = "replica-%d";
 
     public static final String REQUIRE_ID = "id cannot be null";
 
@@ -32,4 +61,24 @@ public final class Constants {
 
     public static final String SUCCESS_DELETE = "Customer is deleted";
 
+    public static final String RESOURCE_REPEATED_IN_BATCH = "customer with same email is repeated within batch";
+
+    public static final String BATCH_TOO_LARGE = "batch cannot contain more than %d customers";
+
+    public static final String LOOKUP_TOO_LARGE = "lookup cannot contain more than %d ids";
+
+    public static final String VERSION_MISMATCH = "customer was changed by another request";
+
+    public static final String VERSION_REQUIRED = "If-Match header is required";
+
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used with a different request";
+
+    public static final String INVALID_CURSOR = "cursor is not valid";
+
+    public static final String INVALID_SORT = "sort by %s is not supported";
+
+    public static final String INVALID_TOTAL_COUNT = "total %s is not supported";
+
+    public static final String SERVICE_BUSY = "service is busy, retry later";
+
 }
@@ -0,0 +1,12 @@
+-- ux_customer_email of V2 cannot be created while emails repeat, for every repeated
+-- email the most recently updated customer is kept and the other rows are moved to
+-- customer_duplicate, where they stay to be merged by hand
+CREATE TABLE `customer_duplicate` LIKE `customer`;
+INSERT INTO `customer_duplicate`
+SELECT c.* FROM `customer` c
+JOIN (
+    SELECT `id`, ROW_NUMBER() OVER (PARTITION BY `email` ORDER BY `date_updated` DESC, `date_created` DESC, `id`) AS `position`
+    FROM `customer`
+) ranked ON ranked.`id` = c.`id`
+WHERE ranked.`position` > 1;
+DELETE c FROM `customer` c JOIN `customer_duplicate` d ON d.`id` = c.`id`;
@@ -0,0 +1,2 @@
+CREATE UNIQUE INDEX `ux_customer_email` ON `customer` (`email`);
+CREATE INDEX `ix_customer_phone_number` ON `customer` (`phone_number`);
@@ -0,0 +1,7 @@
+ALTER TABLE `customer` ADD COLUMN `id_bin` BINARY(16) NULL FIRST;
+UPDATE `customer` SET `id_bin` = UUID_TO_BIN(`id`);
+ALTER TABLE `customer`
+    DROP PRIMARY KEY,
+    DROP COLUMN `id`,
+    CHANGE COLUMN `id_bin` `id` BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (`id`);
@@ -0,0 +1,82 @@
+package com.microservice.customer.bloom;
+
+import com.microservice.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * email filter built from a mocked customer table, pub/sub is not used
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class EmailBloomFilterTest {
+
+    private CustomerRepository customerRepository;
+    private PlatformTransactionManager transactionManager;
+    private MeterRegistry meterRegistry;
+    private EmailBloomFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new EmailBloomFilter(customerRepository, transactionManager, null,
+                mock(RedisMessageListenerContainer.class), null, meterRegistry, true, 1000, 0.01);
+    }
+
+    @Test
+    void everyEmailMightBeTakenUntilFilterIsBuilt() {
+        assertThat(underTest.mightContain("new@example.com"), equalTo(true));
+    }
+
+    @Test
+    void falsePositivesAreNotRecordedUntilFilterIsBuilt() {
+        underTest.recordFalsePositives(3);
+        assertThat(falsePositives(), equalTo(0.0));
+
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        underTest.rebuild();
+        underTest.recordFalsePositives(3);
+        assertThat(falsePositives(), equalTo(3.0));
+    }
+
+    @Test
+    void rebuildPicksUpEmailsCommittedSinceLastBuild() {
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        underTest.rebuild();
+        assertThat(underTest.mightContain("Missed@Example.com"), equalTo(false));
+
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com", "missed@example.com"));
+        underTest.onRebuildInterval();
+        assertThat(underTest.mightContain("Missed@Example.com"), equalTo(true));
+        assertThat(underTest.mightContain("taken@example.com"), equalTo(true));
+    }
+
+    @Test
+    void rebuildScansInReadOnlyTransaction() {
+        when(customerRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        underTest.rebuild();
+
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    private double falsePositives() {
+        return meterRegistry.get("customer.email.filter.false.positives").counter().count();
+    }
+}
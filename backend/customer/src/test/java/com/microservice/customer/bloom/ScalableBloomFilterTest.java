@@ -0,0 +1,63 @@
+package com.microservice.customer.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * scalable bloom filter never misses an added value and keeps its false
+ * positive rate bounded while growing past the first stage
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class ScalableBloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysContained() {
+        final ScalableBloomFilter underTest = new ScalableBloomFilter(100, 0.01);
+        IntStream.range(0, 1000).forEach(index -> underTest.put(email(index)));
+
+        assertThat(IntStream.range(0, 1000).allMatch(index -> underTest.mightContain(email(index))), equalTo(true));
+    }
+
+    @Test
+    void filterGrowsPastFirstStageWithBoundedFalsePositives() {
+        final ScalableBloomFilter underTest = new ScalableBloomFilter(100, 0.01);
+        final long firstStageSize = underTest.sizeInBytes();
+        IntStream.range(0, 1000).forEach(index -> underTest.put(email(index)));
+
+        final long falsePositives = IntStream.range(1000, 11_000)
+                .filter(index -> underTest.mightContain(email(index)))
+                .count();
+
+        assertThat(underTest.sizeInBytes(), greaterThan(firstStageSize));
+        assertThat(underTest.approximateElementCount(), greaterThan(900L));
+        assertThat(underTest.expectedFalsePositiveProbability(), lessThan(0.01));
+        assertThat(falsePositives, lessThan(200L));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        final ScalableBloomFilter underTest = new ScalableBloomFilter(100, 0.01);
+
+        assertThat(underTest.mightContain(email(1)), equalTo(false));
+        assertThat(underTest.expectedFalsePositiveProbability(), equalTo(0.0));
+    }
+
+    @Test
+    void invalidSizingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+
+    private static String email(final int index) {
+        return "customer" + index + "@example.com";
+    }
+}
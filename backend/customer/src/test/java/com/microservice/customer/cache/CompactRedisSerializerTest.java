@@ -0,0 +1,97 @@
+package com.microservice.customer.cache;
+
+import com.microservice.customer.dto.CustomerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * values written by compact serializer are read back equal, whether
+ * deflated or not, and json written before it is still readable
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class CompactRedisSerializerTest {
+
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+    private final CompactRedisSerializer underTest = new CompactRedisSerializer(json, 0);
+
+    @Test
+    void customerRoundTripsInCompactForm() {
+        final CustomerDTO customerDTO = customer();
+        final byte[] bytes = underTest.serialize(customerDTO);
+
+        assertThat(underTest.deserialize(bytes), equalTo(customerDTO));
+        assertThat(bytes.length, lessThan(json.serialize(customerDTO).length));
+    }
+
+    @Test
+    void customerWithMissingFieldsAndTextDateRoundTrips() {
+        final CustomerDTO customerDTO = CustomerDTO.builder()
+                .email("new@example.com")
+                .dateOfBirth("01/01/1990")
+                .build();
+
+        assertThat(underTest.deserialize(underTest.serialize(customerDTO)), equalTo(customerDTO));
+    }
+
+    @Test
+    void valueAboveThresholdIsDeflatedAndRoundTrips() {
+        final CompactRedisSerializer deflating = new CompactRedisSerializer(json, 16);
+        final CustomerDTO customerDTO = customer();
+        final List<String> other = new ArrayList<>(List.of("repeated value", "repeated value", "repeated value"));
+
+        assertThat(deflating.deserialize(deflating.serialize(customerDTO)), equalTo(customerDTO));
+        assertThat(deflating.deserialize(deflating.serialize(other)), equalTo(other));
+        assertThat(deflating.serialize(other).length, lessThan(json.serialize(other).length));
+    }
+
+    @Test
+    void otherValuesAreDelegatedToJson() {
+        final byte[] bytes = underTest.serialize("idempotency");
+
+        assertThat(bytes, equalTo(json.serialize("idempotency")));
+        assertThat(underTest.deserialize(bytes), equalTo("idempotency"));
+    }
+
+    @Test
+    void customerWrittenAsJsonBeforeIsStillReadable() {
+        final CustomerDTO customerDTO = customer();
+
+        assertThat(underTest.deserialize(json.serialize(customerDTO)), equalTo(customerDTO));
+        assertThat(underTest.deserialize(new byte[0]), nullValue());
+    }
+
+    @Test
+    void truncatedCustomerIsRejected() {
+        final byte[] bytes = underTest.serialize(customer());
+
+        assertThrows(SerializationException.class,
+                () -> underTest.deserialize(Arrays.copyOf(bytes, bytes.length / 2)));
+    }
+
+    private static CustomerDTO customer() {
+        return CustomerDTO.builder()
+                .id("01a14e4c-d74e-749c-8bd9-7386fa64809c")
+                .firstName("first")
+                .lastName("last")
+                .email("new@example.com")
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .version(3L)
+                .build();
+    }
+}
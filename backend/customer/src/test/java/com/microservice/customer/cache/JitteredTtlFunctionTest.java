@@ -0,0 +1,56 @@
+package com.microservice.customer.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * time to live of cache entries is spread over the jitter window and
+ * stays the same for a key
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class JitteredTtlFunctionTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final JitteredTtlFunction underTest = new JitteredTtlFunction(TTL, 0.2);
+
+    @Test
+    void timeToLiveStaysWithinJitterWindow() {
+        IntStream.range(0, 1000).mapToObj(index -> underTest.getTimeToLive("key" + index, null))
+                .forEach(ttl -> {
+                    assertThat(ttl, greaterThanOrEqualTo(TTL));
+                    assertThat(ttl, lessThan(TTL.plus(TTL.dividedBy(5))));
+                });
+    }
+
+    @Test
+    void sameKeyGetsSameTimeToLive() {
+        assertThat(underTest.getTimeToLive("key", "first"), equalTo(underTest.getTimeToLive("key", "second")));
+    }
+
+    @Test
+    void keysAreSpreadOverJitterWindow() {
+        final Set<Duration> ttls = IntStream.range(0, 100)
+                .mapToObj(index -> underTest.getTimeToLive("key" + index, null))
+                .collect(Collectors.toSet());
+
+        assertThat(ttls.size(), greaterThan(90));
+    }
+
+    @Test
+    void noJitterKeepsTimeToLive() {
+        assertThat(new JitteredTtlFunction(TTL, 0).getTimeToLive("key", null), equalTo(TTL));
+    }
+}
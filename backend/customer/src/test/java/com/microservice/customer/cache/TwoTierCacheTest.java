@@ -0,0 +1,129 @@
+package com.microservice.customer.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * redis round trips of two tier cache against a mocked connection,
+ * pipelined replies are stubbed in the order commands are queued
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class TwoTierCacheTest {
+
+    private static final String KEY = "key";
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(10);
+
+    private final RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
+    private RedisConnectionFactory connectionFactory;
+    private RedisConnection connection;
+    private RedisStringCommands stringCommands;
+    private TwoTierCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        final RedisCache redisCache = mock(RedisCache.class);
+        when(redisCache.getName()).thenReturn("test");
+        when(redisCache.getCacheConfiguration()).thenReturn(configuration);
+        connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        stringCommands = mock(RedisStringCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.keyCommands()).thenReturn(mock(RedisKeyCommands.class));
+        underTest = new TwoTierCache(Caffeine.newBuilder().build(), redisCache,
+                mock(CacheInvalidationPublisher.class), connectionFactory, CacheStatisticsCollector.none(),
+                0, LOCK_TIMEOUT, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void remoteHitReadsValueAndExpiryInOneRoundTrip() throws Exception {
+        when(connection.closePipeline()).thenReturn(Arrays.asList(serialize("cached"), 60_000L));
+        final Callable<String> loader = mock(Callable.class);
+
+        assertThat(underTest.get(KEY, loader), equalTo("cached"));
+
+        verify(connectionFactory, times(1)).getConnection();
+        verify(loader, never()).call();
+    }
+
+    @Test
+    void waiterLoadsAsSoonAsLockIsReleasedWithoutValue() {
+        lockHeldByOtherPod();
+        when(connection.closePipeline()).thenReturn(
+                Arrays.asList(null, -2L),
+                Arrays.asList(true, null, -2L),
+                Arrays.asList(false, null, -2L));
+
+        final long started = System.nanoTime();
+        assertThat(underTest.get(KEY, () -> "loaded"), equalTo("loaded"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started), lessThan(LOCK_TIMEOUT.dividedBy(10)));
+    }
+
+    @Test
+    void waiterReturnsValueStoredByLockHolder() throws Exception {
+        lockHeldByOtherPod();
+        when(connection.closePipeline()).thenReturn(
+                Arrays.asList(null, -2L),
+                Arrays.asList(true, null, -2L),
+                Arrays.asList(false, serialize("stored"), 60_000L));
+        final Callable<String> loader = mock(Callable.class);
+
+        assertThat(underTest.get(KEY, loader), equalTo("stored"));
+
+        verify(loader, never()).call();
+    }
+
+    @Test
+    void putAllIfAbsentKeepsOnlyStoredValuesLocally() {
+        when(connection.closePipeline()).thenReturn(Arrays.asList(true, false));
+        final Map<String, String> values = new LinkedHashMap<>();
+        values.put("stored", "loaded");
+        values.put("lost", "loaded");
+
+        underTest.putAllIfAbsent(values);
+
+        assertThat(underTest.getLocalCache().getIfPresent("stored").get(), equalTo("loaded"));
+        assertThat(underTest.getLocalCache().getIfPresent("lost"), nullValue());
+    }
+
+    private void lockHeldByOtherPod() {
+        when(stringCommands.set(any(byte[].class), any(byte[].class), any(Expiration.class), any(SetOption.class)))
+                .thenReturn(false);
+    }
+
+    private byte[] serialize(final Object value) {
+        return ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+    }
+}
@@ -0,0 +1,93 @@
+package com.microservice.customer.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * limit grows by one on fast requests served under load, is multiplied
+ * by backoff ratio on slow or dropped ones and stays within its bounds
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new AdaptiveConcurrencyLimiter(4, 2, 6, 0.5, Duration.ofMillis(100), meterRegistry);
+    }
+
+    @Test
+    void requestsAboveLimitAreRejected() {
+        IntStream.range(0, 4).forEach(index -> assertThat(underTest.tryAcquire(), equalTo(true)));
+
+        assertThat(underTest.tryAcquire(), equalTo(false));
+        assertThat(underTest.getInFlight(), equalTo(4));
+        assertThat(meterRegistry.get("customer.limiter.rejected").counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void fastRequestsUnderLoadGrowLimitUpToMax() {
+        for (int round = 0; round < 5; round++) {
+            final int limit = underTest.getLimit();
+            IntStream.range(0, limit).forEach(index -> underTest.tryAcquire());
+            underTest.onSuccess(FAST);
+            IntStream.range(1, limit).forEach(index -> underTest.onIgnore());
+        }
+
+        assertThat(underTest.getLimit(), equalTo(6));
+        assertThat(underTest.getInFlight(), equalTo(0));
+    }
+
+    @Test
+    void fastRequestsWithoutLoadKeepLimit() {
+        underTest.tryAcquire();
+        underTest.onSuccess(FAST);
+
+        assertThat(underTest.getLimit(), equalTo(4));
+    }
+
+    @Test
+    void slowOrDroppedRequestsBackOffDownToMin() {
+        underTest.tryAcquire();
+        underTest.onSuccess(SLOW);
+        assertThat(underTest.getLimit(), equalTo(2));
+
+        underTest.tryAcquire();
+        underTest.onDropped();
+        assertThat(underTest.getLimit(), equalTo(2));
+        assertThat(underTest.getInFlight(), equalTo(0));
+    }
+
+    @Test
+    void ignoredRequestsReleaseSlotAndKeepLimit() {
+        underTest.tryAcquire();
+        underTest.onIgnore();
+
+        assertThat(underTest.getLimit(), equalTo(4));
+        assertThat(underTest.getInFlight(), equalTo(0));
+    }
+
+    @Test
+    void invalidBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(4, 0, 6, 0.5, Duration.ofMillis(100), meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(4, 2, 6, 1, Duration.ofMillis(100), meterRegistry));
+    }
+}
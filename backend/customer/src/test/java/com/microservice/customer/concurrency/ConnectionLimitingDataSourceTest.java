@@ -0,0 +1,102 @@
+package com.microservice.customer.concurrency;
+
+import com.microservice.customer.config.VirtualThreadConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * slots of connection limiting datasource are taken by borrowed
+ * connections and given back when they are closed
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionLimitingDataSource underTest;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(10), meterRegistry);
+    }
+
+    @Test
+    void borrowerAboveLimitIsRejectedAfterTimeout() throws SQLException {
+        underTest.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, underTest::getConnection);
+        assertThat(meterRegistry.get("customer.connections.rejected").counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void closedConnectionGivesSlotBackOnce() throws SQLException {
+        final Connection connection = underTest.getConnection();
+        connection.close();
+        connection.close();
+
+        underTest.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, underTest::getConnection);
+    }
+
+    @Test
+    void failedBorrowGivesSlotBack() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down")).thenAnswer(invocation -> mock(Connection.class));
+
+        assertThrows(SQLException.class, underTest::getConnection);
+
+        underTest.getConnection();
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void closingLimiterClosesPool() throws Exception {
+        final HikariDataSource pool = mock(HikariDataSource.class);
+
+        new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(10), meterRegistry).close();
+
+        verify(pool).close();
+    }
+
+    @Test
+    void onlyPrimaryPoolIsLimited() {
+        final BeanPostProcessor postProcessor = VirtualThreadConfig.connectionLimitingDataSourcePostProcessor(
+                new MockEnvironment(), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        final HikariDataSource pool = new HikariDataSource();
+        final DataSource lazyProxy = new LazyConnectionDataSourceProxy(pool);
+
+        assertThat(postProcessor.postProcessAfterInitialization(pool, "primaryDataSource"),
+                instanceOf(ConnectionLimitingDataSource.class));
+        assertThat(postProcessor.postProcessAfterInitialization(pool, "dataSource"),
+                instanceOf(ConnectionLimitingDataSource.class));
+        assertThat(postProcessor.postProcessAfterInitialization(lazyProxy, "dataSource"), sameInstance(lazyProxy));
+    }
+}
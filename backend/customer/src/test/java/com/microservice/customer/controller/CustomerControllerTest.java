@@ -0,0 +1,107 @@
+package com.microservice.customer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.Response;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.microservice.customer.utils.Constants.VERSION_MISMATCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+
+/**
+ * conditional update of customer controller, If-Match is turned into
+ * expected version and precondition errors into 412 and 428
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class CustomerControllerTest {
+
+    private static final String ID = "01a14e4c-d74e-749c-8bd9-7386fa64809c";
+
+    private CustomerService customerService;
+    private CustomerController underTest;
+
+    @BeforeEach
+    void setUp() {
+        customerService = mock(CustomerService.class);
+        underTest = new CustomerController(customerService, new ObjectMapper());
+        ReflectionTestUtils.setField(underTest, "requireIfMatch", true);
+    }
+
+    @Test
+    void updateWithoutIfMatchIsRequiredToBeConditional() {
+        final ResponseEntity<Response<?>> response = underTest.update(ID, customer(null), null);
+
+        assertThat(response.getStatusCode(), equalTo(PRECONDITION_REQUIRED));
+        verify(customerService, never()).update(anyString(), any(CustomerDTO.class), any());
+    }
+
+    @Test
+    void updateWithStaleVersionFailsPrecondition() {
+        when(customerService.update(eq(ID), any(CustomerDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException(VERSION_MISMATCH));
+
+        final ResponseEntity<Response<?>> response = underTest.update(ID, customer(null), "\"2\"");
+
+        assertThat(response.getStatusCode(), equalTo(PRECONDITION_FAILED));
+    }
+
+    @Test
+    void updateWithWeakIfMatchFailsPrecondition() {
+        final ResponseEntity<Response<?>> response = underTest.update(ID, customer(null), "W/\"2\"");
+
+        assertThat(response.getStatusCode(), equalTo(PRECONDITION_FAILED));
+        verify(customerService, never()).update(anyString(), any(CustomerDTO.class), any());
+    }
+
+    @Test
+    void updateWithMatchingVersionReturnsNewTag() {
+        when(customerService.update(eq(ID), any(CustomerDTO.class), eq(2L))).thenReturn(customer(3L));
+
+        final ResponseEntity<Response<?>> response = underTest.update(ID, customer(null), "\"2\"");
+
+        assertThat(response.getStatusCode(), equalTo(OK));
+        assertThat(response.getHeaders().getETag(), equalTo("\"3\""));
+    }
+
+    @Test
+    void updateWithoutIfMatchReturnsNewTag() {
+        ReflectionTestUtils.setField(underTest, "requireIfMatch", false);
+        when(customerService.update(eq(ID), any(CustomerDTO.class), eq(null))).thenReturn(customer(3L));
+
+        final ResponseEntity<Response<?>> response = underTest.update(ID, customer(null), null);
+
+        assertThat(response.getStatusCode(), equalTo(OK));
+        assertThat(response.getHeaders().getETag(), equalTo("\"3\""));
+    }
+
+    private static CustomerDTO customer(final Long version) {
+        return CustomerDTO.builder()
+                .id(ID)
+                .firstName("first")
+                .lastName("last")
+                .email("new@example.com")
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.microservice.customer.controller;
+
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.service.ReactiveCustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import static com.microservice.customer.utils.Constants.VERSION_MISMATCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+
+/**
+ * conditional update of reactive customer controller, precondition
+ * errors are answered with 412 and 428
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class ReactiveCustomerControllerTest {
+
+    private static final String ID = "01a14e4c-d74e-749c-8bd9-7386fa64809c";
+
+    private ReactiveCustomerService customerService;
+    private ReactiveCustomerController underTest;
+
+    @BeforeEach
+    void setUp() {
+        customerService = mock(ReactiveCustomerService.class);
+        underTest = new ReactiveCustomerController(customerService);
+        ReflectionTestUtils.setField(underTest, "requireIfMatch", true);
+    }
+
+    @Test
+    void updateWithoutIfMatchIsRequiredToBeConditional() {
+        assertThat(underTest.updateCustomer(ID, customer(), null).block().getStatusCode(),
+                equalTo(PRECONDITION_REQUIRED));
+        verify(customerService, never()).update(anyString(), any(CustomerDTO.class), any());
+    }
+
+    @Test
+    void updateWithStaleVersionFailsPrecondition() {
+        when(customerService.update(eq(ID), any(CustomerDTO.class), eq(2L)))
+                .thenReturn(Mono.error(new PreconditionFailedException(VERSION_MISMATCH)));
+
+        assertThat(underTest.updateCustomer(ID, customer(), "\"2\"").block().getStatusCode(),
+                equalTo(PRECONDITION_FAILED));
+    }
+
+    private static CustomerDTO customer() {
+        return CustomerDTO.builder()
+                .id(ID)
+                .firstName("first")
+                .lastName("last")
+                .email("new@example.com")
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .build();
+    }
+}
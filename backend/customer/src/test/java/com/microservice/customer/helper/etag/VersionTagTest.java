@@ -0,0 +1,67 @@
+package com.microservice.customer.helper.etag;
+
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.ResponsePager;
+import com.microservice.customer.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * strong entity tag of a version is parsed back to it, any other If-Match
+ * value than a strong tag or * fails the precondition
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class VersionTagTest {
+
+    @Test
+    void versionRoundTripsThroughStrongTag() {
+        assertThat(VersionTag.of(3L), equalTo("\"3\""));
+        assertThat(VersionTag.parse(VersionTag.of(3L)), equalTo(3L));
+        assertThat(VersionTag.parse(" \"3\" "), equalTo(3L));
+    }
+
+    @Test
+    void unknownVersionHasNoTag() {
+        assertThat(VersionTag.of((Long) null), nullValue());
+    }
+
+    @Test
+    void anyMatchesEveryVersion() {
+        assertThat(VersionTag.parse("*"), nullValue());
+    }
+
+    @Test
+    void weakOrMalformedTagFailsPrecondition() {
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parse("W/\"3\""));
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parse("3"));
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parse("\"\""));
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parse("\"abc\""));
+    }
+
+    @Test
+    void pageTagIsWeakAndChangesWithVersions() {
+        final String tag = VersionTag.of(page(3L));
+
+        assertThat(tag, startsWith("W/\""));
+        assertThat(VersionTag.of(page(3L)), equalTo(tag));
+        assertThat(VersionTag.of(page(4L)), not(equalTo(tag)));
+    }
+
+    private static ResponsePager<CustomerDTO> page(final Long version) {
+        final CustomerDTO customerDTO = CustomerDTO.builder()
+                .id("01a14e4c-d74e-749c-8bd9-7386fa64809c")
+                .version(version)
+                .build();
+        return new ResponsePager<>(List.of(customerDTO), 0, 1L, 1, false, false, null);
+    }
+}
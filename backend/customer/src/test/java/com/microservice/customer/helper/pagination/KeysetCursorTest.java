@@ -0,0 +1,60 @@
+package com.microservice.customer.helper.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.microservice.customer.utils.Constants.INVALID_CURSOR;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * keyset position is carried through an opaque url safe token and
+ * tokens not produced by it are rejected
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class KeysetCursorTest {
+
+    @Test
+    void positionRoundTripsThroughCursor() {
+        final Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("dateCreated", "2024-01-01T10:00:00");
+        keys.put("id", "01a14e4c-d74e-749c-8bd9-7386fa64809c");
+
+        final String cursor = KeysetCursor.encode(ScrollPosition.forward(keys));
+        final KeysetScrollPosition position = KeysetCursor.decode(cursor);
+
+        assertThat(cursor, matchesPattern("[A-Za-z0-9_-]+"));
+        assertThat(position.getKeys(), equalTo(keys));
+        assertThat(position.scrollsForward(), equalTo(true));
+    }
+
+    @Test
+    void blankCursorPointsToFirstPage() {
+        assertThat(KeysetCursor.decode(null).isInitial(), equalTo(true));
+        assertThat(KeysetCursor.decode(" ").isInitial(), equalTo(true));
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        final IllegalArgumentException notBase64 = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode("not a cursor"));
+        final IllegalArgumentException notKeys = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode("WzFd"));
+
+        assertThat(notBase64.getMessage(), equalTo(INVALID_CURSOR));
+        assertThat(notKeys.getMessage(), equalTo(INVALID_CURSOR));
+    }
+
+    @Test
+    void offsetPositionCannotBeEncoded() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.encode(ScrollPosition.offset()));
+    }
+}
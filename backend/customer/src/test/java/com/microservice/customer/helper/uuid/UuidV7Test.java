@@ -0,0 +1,53 @@
+package com.microservice.customer.helper.uuid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * uuid version 7 carries version and variant bits of RFC 9562 and ids
+ * generated in a later millisecond sort after earlier ones
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class UuidV7Test {
+
+    @Test
+    void versionAndVariantBitsAreSet() {
+        IntStream.range(0, 100).mapToObj(index -> UuidV7.generate()).forEach(uuid -> {
+            assertThat(uuid.version(), equalTo(7));
+            assertThat(uuid.variant(), equalTo(2));
+        });
+    }
+
+    @Test
+    void timestampIsCurrentUnixEpochMillis() {
+        final long before = System.currentTimeMillis();
+        final long timestamp = UuidV7.generate().getMostSignificantBits() >>> 16;
+        final long after = System.currentTimeMillis();
+
+        assertThat(timestamp, greaterThanOrEqualTo(before));
+        assertThat(timestamp, lessThanOrEqualTo(after));
+    }
+
+    @Test
+    void idsOfLaterMillisecondsSortAfterEarlierOnes() throws InterruptedException {
+        final List<UUID> uuids = new ArrayList<>();
+        for (int index = 0; index < 5; index++) {
+            uuids.add(UuidV7.generate());
+            Thread.sleep(2);
+        }
+
+        assertThat(uuids.stream().sorted(Comparator.comparing(UUID::toString)).toList(), equalTo(uuids));
+    }
+}
@@ -0,0 +1,91 @@
+package com.microservice.customer.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+/**
+ * flyway migrations against mysql, customer's stored before the unique
+ * email index existed are migrated to the latest schema. Needs docker,
+ * skipped when it is not available
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CustomerMigrationTest {
+
+    private static final String OLDER = "018f0a4e-0000-7000-8000-000000000001";
+    private static final String NEWER = "018f0a4e-0000-7000-8000-000000000002";
+    private static final String OTHER = "018f0a4e-0000-7000-8000-000000000003";
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @Test
+    void repeatedEmailsAreMovedAsideBeforeUniqueIndex() throws SQLException {
+        flyway("1").migrate();
+        try (Connection connection = connection()) {
+            insert(connection, OLDER, "a@example.com", Instant.parse("2024-01-01T00:00:00Z"));
+            insert(connection, NEWER, "A@example.com", Instant.parse("2024-02-01T00:00:00Z"));
+            insert(connection, OTHER, "b@example.com", Instant.parse("2024-01-01T00:00:00Z"));
+        }
+
+        flyway(null).migrate();
+
+        try (Connection connection = connection()) {
+            assertThat(ids(connection, "SELECT BIN_TO_UUID(`id`) FROM `customer`"), containsInAnyOrder(NEWER, OTHER));
+            assertThat(ids(connection, "SELECT `id` FROM `customer_duplicate`"), contains(OLDER));
+        }
+    }
+
+    private static Flyway flyway(final String target) {
+        return Flyway.configure()
+                .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+                .locations("classpath:db/migration")
+                .target(target == null ? "latest" : target)
+                .load();
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+
+    private static void insert(final Connection connection, final String id, final String email,
+                               final Instant updated) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO `customer` (`id`, `first_name`, `last_name`, `email`, `date_of_birth`, `itin_or_ssn`,
+                `date_updated`) VALUES (?, 'first', 'last', ?, '1990-01-01', '999', ?)""")) {
+            statement.setString(1, id);
+            statement.setString(2, email);
+            statement.setTimestamp(3, Timestamp.from(updated));
+            statement.executeUpdate();
+        }
+    }
+
+    private static List<String> ids(final Connection connection, final String query) throws SQLException {
+        final List<String> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next())
+                ids.add(resultSet.getString(1));
+        }
+        return ids;
+    }
+}
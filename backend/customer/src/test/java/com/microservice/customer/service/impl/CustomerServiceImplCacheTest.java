@@ -0,0 +1,317 @@
+package com.microservice.customer.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.customer.bloom.EmailBloomFilter;
+import com.microservice.customer.cache.CacheGeneration;
+import com.microservice.customer.cache.CacheInvalidationPublisher;
+import com.microservice.customer.cache.TwoTierCache;
+import com.microservice.customer.datasource.ReadYourWrites;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
+import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import com.microservice.customer.repository.CustomerRepository;
+import com.microservice.customer.service.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_MISSING;
+import static com.microservice.customer.utils.Constants.CACHE_IDEMPOTENCY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * cache semantics of customer service, service is proxied by spring
+ * caching so cache annotations are applied as in the application. Caches
+ * are two tier caches whose redis tier is mocked, values live in L1
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+@SpringJUnitConfig(CustomerServiceImplCacheTest.Config.class)
+class CustomerServiceImplCacheTest {
+
+    private static final String ID = "01a14e4c-d74e-749c-8bd9-7386fa64809c";
+    private static final RedisCacheConfiguration CONFIGURATION = RedisCacheConfiguration.defaultCacheConfig()
+            .serializeValuesWith(SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+
+    @Autowired
+    private CustomerService underTest;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private RedisStringCommands stringCommands;
+
+    @BeforeEach
+    void setUp() {
+        reset(customerRepository, stringCommands);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void updateWithUpperCaseIdEvictsCanonicalEntry() {
+        cache().put(ID, customer("old@example.com", 3L));
+        when(customerRepository.updateById(any(Customer.class), eq(null))).thenReturn(1);
+        underTest.update(ID.toUpperCase(), customer(ID.toUpperCase(), "new@example.com", null), null);
+
+        assertThat(cache().get(ID), nullValue());
+    }
+
+    @Test
+    void deleteWithUpperCaseIdEvictsCanonicalEntry() {
+        cache().put(ID, customer("old@example.com", 3L));
+        when(customerRepository.removeById(UUID.fromString(ID))).thenReturn(1);
+
+        underTest.delete(ID.toUpperCase());
+
+        assertThat(cache().get(ID), nullValue());
+    }
+
+    @Test
+    void addWritesCreatedCustomerToCache() {
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            final Customer customer = invocation.getArgument(0);
+            customer.setId(UUID.fromString(ID));
+            customer.setVersion(0L);
+            return customer;
+        });
+
+        final CustomerDTO created = underTest.add(customer("new@example.com", null), null);
+
+        assertThat(cache().get(ID, CustomerDTO.class), equalTo(created));
+    }
+
+    @Test
+    void addWithTakenEmailReturnsCachedCustomerFoundByEmailIndex() {
+        final CustomerDTO existing = customer("taken@example.com", 3L);
+        cache().put(ID, existing);
+        when(customerRepository.saveAndFlush(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'customer.email'"));
+        when(customerRepository.findIdByEmail("taken@example.com")).thenReturn(Optional.of(UUID.fromString(ID)));
+
+        assertThat(underTest.add(customer(null, "taken@example.com", null), null), equalTo(existing));
+        verify(customerRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void addWithSameIdempotencyKeyAndBodyReplaysResult() {
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            final Customer customer = invocation.getArgument(0);
+            customer.setId(UUID.fromString(ID));
+            customer.setVersion(0L);
+            return customer;
+        });
+        final CustomerDTO created = underTest.add(customer("new@example.com", null), "key");
+
+        final CustomerDTO replayed = underTest.add(customer("new@example.com", null), "key");
+
+        assertThat(replayed, equalTo(created));
+        verify(customerRepository, times(1)).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void addWithSameIdempotencyKeyAndOtherBodyIsRejected() {
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            final Customer customer = invocation.getArgument(0);
+            customer.setId(UUID.fromString(ID));
+            customer.setVersion(0L);
+            return customer;
+        });
+        underTest.add(customer("new@example.com", null), "key");
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> underTest.add(customer("other@example.com", null), "key"));
+        verify(customerRepository, times(1)).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void getCachesCustomerReadFromPrimaryNotStaleReplica() {
+        when(customerRepository.findById(UUID.fromString(ID))).thenAnswer(invocation -> Optional.of(
+                entity(ReadYourWrites.isPinned() ? "new@example.com" : "old@example.com")));
+
+        assertThat(underTest.get(ID).getEmail(), equalTo("new@example.com"));
+        assertThat(cache().get(ID, CustomerDTO.class).getEmail(), equalTo("new@example.com"));
+    }
+
+    @Test
+    void getDoesNotCacheCustomerDeletedOnPrimary() {
+        when(customerRepository.findById(UUID.fromString(ID))).thenAnswer(invocation ->
+                ReadYourWrites.isPinned() ? Optional.empty() : Optional.of(entity("old@example.com")));
+
+        assertThrows(NotFoundException.class, () -> underTest.get(ID));
+        assertThat(cache().get(ID), nullValue());
+    }
+
+    @Test
+    void lookupCachesCustomersReadFromPrimaryNotStaleReplica() {
+        when(stringCommands.mGet(any(byte[].class))).thenReturn(Arrays.asList((byte[]) null));
+        when(customerRepository.findAllById(any())).thenAnswer(invocation -> List.of(
+                entity(ReadYourWrites.isPinned() ? "new@example.com" : "old@example.com")));
+
+        final CustomerDTO loaded = underTest.lookup(List.of(ID)).get(ID);
+
+        assertThat(loaded.getEmail(), equalTo("new@example.com"));
+        verify(stringCommands).set(aryEq(customerKey()), aryEq(ByteUtils.getBytes(CONFIGURATION.getValueSerializationPair().write(loaded))),
+                any(Expiration.class), any(SetOption.class));
+    }
+
+    @Test
+    void getRemembersMissConfirmedOnPrimary() {
+        when(customerRepository.findById(UUID.fromString(ID))).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> underTest.get(ID));
+
+        verify(stringCommands).set(aryEq(missingKey()), any(byte[].class), any(Expiration.class),
+                any(SetOption.class));
+    }
+
+    @Test
+    void updateWithVersionWritesUpdatedCustomerThrough() {
+        cache().put(ID, customer("old@example.com", 3L));
+        when(customerRepository.updateById(any(Customer.class), eq(3L))).thenReturn(1);
+
+        final CustomerDTO updated = underTest.update(ID, customer("new@example.com", null), 3L);
+
+        assertThat(updated.getVersion(), equalTo(4L));
+        assertThat(cache().get(ID, CustomerDTO.class), equalTo(updated));
+    }
+
+    @Test
+    void updateWithoutVersionEvictsCustomer() {
+        cache().put(ID, customer("old@example.com", 3L));
+        when(customerRepository.updateById(any(Customer.class), eq(null))).thenReturn(1);
+
+        underTest.update(ID, customer("new@example.com", null), null);
+
+        assertThat(cache().get(ID), nullValue());
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_CUSTOMER);
+    }
+
+    private static Customer entity(final String email) {
+        final Customer customer = new CustomerMapperImpl_().toEntity(customer(email, 3L));
+        customer.setId(UUID.fromString(ID));
+        return customer;
+    }
+
+    private static byte[] customerKey() {
+        return (CACHE_CUSTOMER + "::" + ID).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] missingKey() {
+        return (CACHE_CUSTOMER_MISSING + "::" + ID).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static CustomerDTO customer(final String email, final Long version) {
+        return customer(ID, email, version);
+    }
+
+    private static CustomerDTO customer(final String id, final String email, final Long version) {
+        return CustomerDTO.builder()
+                .id(id)
+                .firstName("first")
+                .lastName("last")
+                .email(email)
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .version(version)
+                .build();
+    }
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        RedisStringCommands stringCommands() {
+            return mock(RedisStringCommands.class);
+        }
+
+        @Bean
+        CacheManager cacheManager(final RedisStringCommands stringCommands) {
+            final RedisConnection connection = mock(RedisConnection.class);
+            when(connection.stringCommands()).thenReturn(stringCommands);
+            when(connection.keyCommands()).thenReturn(mock(RedisKeyCommands.class));
+            when(connection.closePipeline()).thenReturn(Arrays.asList(null, -2L));
+            final RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            final SimpleCacheManager cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(List.of(
+                    twoTierCache(CACHE_CUSTOMER, connectionFactory),
+                    twoTierCache(CACHE_CUSTOMER_MISSING, connectionFactory),
+                    twoTierCache(CACHE_IDEMPOTENCY, connectionFactory)));
+            return cacheManager;
+        }
+
+        @Bean
+        CustomerRepository customerRepository() {
+            return mock(CustomerRepository.class);
+        }
+
+        @Bean
+        CustomerService customerService(final CustomerRepository customerRepository, final CacheManager cacheManager) {
+            return new CustomerServiceImpl(customerRepository, new CustomerMapperImpl_(), mock(EntityManager.class),
+                    mock(Validator.class), cacheManager, mock(EmailBloomFilter.class), mock(CacheGeneration.class),
+                    new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        }
+
+        private static TwoTierCache twoTierCache(final String name, final RedisConnectionFactory connectionFactory) {
+            final RedisCache redisCache = mock(RedisCache.class);
+            when(redisCache.getName()).thenReturn(name);
+            when(redisCache.getCacheConfiguration()).thenReturn(CONFIGURATION);
+            return new TwoTierCache(Caffeine.newBuilder().build(), redisCache, mock(CacheInvalidationPublisher.class),
+                    connectionFactory, CacheStatisticsCollector.none(), 0, Duration.ZERO, new SimpleMeterRegistry());
+        }
+    }
+}
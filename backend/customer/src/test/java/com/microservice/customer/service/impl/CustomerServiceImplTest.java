@@ -0,0 +1,150 @@
+package com.microservice.customer.service.impl;
+
+import com.microservice.customer.bloom.EmailBloomFilter;
+import com.microservice.customer.cache.CacheGeneration;
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.BatchStatus;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import com.microservice.customer.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * business logic of customer service that does not depend on caching,
+ * service is called directly with a mocked repository
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class CustomerServiceImplTest {
+
+    private final CustomerMapperImpl_ customerMapper = new CustomerMapperImpl_();
+    private CustomerRepository customerRepository;
+    private EmailBloomFilter emailBloomFilter;
+    private CustomerServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        emailBloomFilter = mock(EmailBloomFilter.class);
+        when(emailBloomFilter.mightContain(anyString())).thenReturn(true);
+        underTest = new CustomerServiceImpl(customerRepository, customerMapper, mock(EntityManager.class),
+                mock(Validator.class), mock(CacheManager.class), emailBloomFilter, mock(CacheGeneration.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(underTest, "batchMaxSize", 1000);
+        ReflectionTestUtils.setField(underTest, "jdbcBatchSize", 50);
+    }
+
+    @Test
+    void addAllReportsEmailTakenByConcurrentBatchAsExisting() {
+        final Customer taken = persisted(customerMapper.toEntity(customer("taken@example.com")));
+        when(customerRepository.findAllByEmailIn(any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(taken));
+        when(customerRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'customer.email'"))
+                .thenAnswer(invocation -> invocation.<List<Customer>>getArgument(0).stream()
+                        .map(CustomerServiceImplTest::persisted)
+                        .toList());
+
+        final List<BatchResult> results = underTest.addAll(List.of(
+                customer("taken@example.com"), customer("new@example.com")));
+
+        assertThat(results.stream().map(BatchResult::status).toList(),
+                contains(BatchStatus.EXISTING, BatchStatus.CREATED));
+        assertThat(results.get(0).content().getId(), equalTo(taken.getId().toString()));
+        verify(emailBloomFilter).putAll(List.of("new@example.com"));
+    }
+
+    @Test
+    void addAllRethrowsViolationNotCausedByTakenEmail() {
+        when(customerRepository.findAllByEmailIn(any())).thenReturn(List.of());
+        when(customerRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'first_name'"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> underTest.addAll(List.of(customer("new@example.com"))));
+    }
+
+    @Test
+    void updateWithStaleVersionFailsPrecondition() {
+        final UUID id = UUID.randomUUID();
+        final CustomerDTO customerDTO = customer(id.toString(), "new@example.com");
+        when(customerRepository.updateById(any(Customer.class), eq(2L))).thenReturn(0);
+        when(customerRepository.existsById(id)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> underTest.update(id.toString(), customerDTO, 2L));
+        verify(emailBloomFilter, never()).putAll(anyList());
+    }
+
+    @Test
+    void updateWithoutVersionReturnsVersionItWrote() {
+        final UUID id = UUID.randomUUID();
+        when(customerRepository.updateById(any(Customer.class), eq(null))).thenReturn(1);
+        when(customerRepository.findVersionById(id)).thenReturn(Optional.of(5L));
+
+        final CustomerDTO updated = underTest.update(id.toString(), customer(id.toString(), "new@example.com"), null);
+
+        assertThat(updated.getVersion(), equalTo(5L));
+    }
+
+    @Test
+    void updateWithVersionOfMissingCustomerIsNotFound() {
+        final UUID id = UUID.randomUUID();
+        final CustomerDTO customerDTO = customer(id.toString(), "new@example.com");
+        when(customerRepository.updateById(any(Customer.class), eq(2L))).thenReturn(0);
+        when(customerRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> underTest.update(id.toString(), customerDTO, 2L));
+    }
+
+    private static CustomerDTO customer(final String email) {
+        return customer(null, email);
+    }
+
+    private static CustomerDTO customer(final String id, final String email) {
+        return CustomerDTO.builder()
+                .id(id)
+                .firstName("first")
+                .lastName("last")
+                .email(email)
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .build();
+    }
+
+    private static Customer persisted(final Customer customer) {
+        customer.setId(UUID.randomUUID());
+        customer.setVersion(0L);
+        return customer;
+    }
+}
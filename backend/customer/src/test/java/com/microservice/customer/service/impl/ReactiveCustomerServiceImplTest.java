@@ -0,0 +1,222 @@
+package com.microservice.customer.service.impl;
+
+import com.microservice.customer.cache.ReactiveCacheGeneration;
+import com.microservice.customer.cache.ReactiveRedisCache;
+import com.microservice.customer.cache.ReactiveRedisCacheManager;
+import com.microservice.customer.dto.BatchResult;
+import com.microservice.customer.dto.BatchStatus;
+import com.microservice.customer.dto.CustomerDTO;
+import com.microservice.customer.dto.IdempotentResult;
+import com.microservice.customer.entity.Customer;
+import com.microservice.customer.exception.IdempotencyKeyReusedException;
+import com.microservice.customer.exception.NotFoundException;
+import com.microservice.customer.exception.PreconditionFailedException;
+import com.microservice.customer.mapper.CustomerMapperImpl_;
+import com.microservice.customer.repository.ReactiveCustomerRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER;
+import static com.microservice.customer.utils.Constants.CACHE_CUSTOMER_MISSING;
+import static com.microservice.customer.utils.Constants.CACHE_IDEMPOTENCY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * business logic of reactive customer service, service is called directly
+ * with a mocked repository and mocked redis caches
+ *
+ * @author Asif Bakht
+ * @since 2024
+ */
+class ReactiveCustomerServiceImplTest {
+
+    private static final String ID = "01a14e4c-d74e-749c-8bd9-7386fa64809c";
+
+    private final CustomerMapperImpl_ customerMapper = new CustomerMapperImpl_();
+    private ReactiveCustomerRepository customerRepository;
+    private ReactiveRedisCache customerCache;
+    private ReactiveRedisCache missingCache;
+    private ReactiveRedisCache idempotencyCache;
+    private ReactiveCustomerServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(ReactiveCustomerRepository.class);
+        customerCache = cache();
+        missingCache = cache();
+        idempotencyCache = cache();
+        final ReactiveRedisCacheManager cacheManager = mock(ReactiveRedisCacheManager.class);
+        when(cacheManager.getCache(CACHE_CUSTOMER)).thenReturn(customerCache);
+        when(cacheManager.getCache(CACHE_CUSTOMER_MISSING)).thenReturn(missingCache);
+        when(cacheManager.getCache(CACHE_IDEMPOTENCY)).thenReturn(idempotencyCache);
+        final ReactiveCacheGeneration customerPageGeneration = mock(ReactiveCacheGeneration.class);
+        when(customerPageGeneration.bump()).thenReturn(Mono.empty());
+        final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        underTest = new ReactiveCustomerServiceImpl(customerRepository, customerMapper, mock(Validator.class),
+                cacheManager, customerPageGeneration, redisTemplate, transactionalOperator);
+        ReflectionTestUtils.setField(underTest, "batchMaxSize", 1000);
+        ReflectionTestUtils.setField(underTest, "jdbcBatchSize", 50);
+    }
+
+    @Test
+    void addStoresResultAgainstIdempotencyKey() {
+        when(customerRepository.insertAll(anyList())).thenReturn(Flux.just(stored(ID, "new@example.com")));
+
+        final CustomerDTO created = underTest.add(customer(null, "new@example.com"), "key").block();
+
+        assertThat(created.getId(), equalTo(ID));
+        verify(idempotencyCache).put("key", IdempotentResult.of(customer(null, "new@example.com"), created));
+        verify(customerCache).put(ID, created);
+    }
+
+    @Test
+    void addWithSameIdempotencyKeyAndBodyReplaysResult() {
+        final CustomerDTO created = customer(ID, "new@example.com");
+        when(idempotencyCache.get("key"))
+                .thenReturn(Mono.just(IdempotentResult.of(customer(null, "new@example.com"), created)));
+
+        assertThat(underTest.add(customer(null, "new@example.com"), "key").block(), equalTo(created));
+        verify(customerRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void addWithSameIdempotencyKeyAndOtherBodyIsRejected() {
+        when(idempotencyCache.get("key")).thenReturn(Mono.just(
+                IdempotentResult.of(customer(null, "new@example.com"), customer(ID, "new@example.com"))));
+
+        final Mono<CustomerDTO> add = underTest.add(customer(null, "other@example.com"), "key");
+
+        assertThrows(IdempotencyKeyReusedException.class, add::block);
+        verify(customerRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void addReturnsExistingCustomerWhenEmailIsTaken() {
+        when(customerRepository.insertAll(anyList()))
+                .thenReturn(Flux.error(new DataIntegrityViolationException("ux_customer_email")));
+        when(customerRepository.findByEmail("taken@example.com")).thenReturn(Mono.just(stored(ID, "taken@example.com")));
+
+        assertThat(underTest.add(customer(null, "taken@example.com"), null).block().getId(), equalTo(ID));
+        verify(customerCache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void addAllReportsCustomersInsertedConcurrentlyAsExisting() {
+        final UUID racedId = UUID.randomUUID();
+        when(customerRepository.findAllByEmailIn(any())).thenReturn(
+                Flux.empty(),
+                Flux.just(stored(racedId.toString(), "raced@example.com")));
+        when(customerRepository.insertAll(anyList())).thenReturn(
+                Flux.error(new DataIntegrityViolationException("ux_customer_email")),
+                Flux.just(stored(ID, "new@example.com")));
+
+        final List<BatchResult> results = underTest.addAll(List.of(
+                customer(null, "raced@example.com"), customer(null, "new@example.com"))).block();
+
+        assertThat(results.stream().map(BatchResult::status).toList(),
+                contains(BatchStatus.EXISTING, BatchStatus.CREATED));
+        assertThat(results.get(0).content().getId(), equalTo(racedId.toString()));
+    }
+
+    @Test
+    void updateWithStaleVersionFailsPrecondition() {
+        when(customerRepository.updateById(any(Customer.class), eq(3L))).thenReturn(Mono.just(0L));
+        when(customerRepository.existsById(UUID.fromString(ID))).thenReturn(Mono.just(true));
+
+        final Mono<CustomerDTO> update = underTest.update(ID, customer(ID, "new@example.com"), 3L);
+
+        assertThrows(PreconditionFailedException.class, update::block);
+        verify(customerCache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void updateWithVersionWritesUpdatedCustomerThrough() {
+        when(customerRepository.updateById(any(Customer.class), eq(3L))).thenReturn(Mono.just(1L));
+
+        final CustomerDTO updated = underTest.update(ID, customer(ID, "new@example.com"), 3L).block();
+
+        assertThat(updated.getVersion(), equalTo(4L));
+        verify(customerCache).put(ID, updated);
+    }
+
+    @Test
+    void updateWithoutVersionReturnsVersionItWrote() {
+        when(customerRepository.updateById(any(Customer.class), eq(null))).thenReturn(Mono.just(1L));
+        when(customerRepository.findVersionById(UUID.fromString(ID))).thenReturn(Mono.just(5L));
+        when(customerCache.evict(anyString())).thenReturn(Mono.empty());
+
+        final CustomerDTO updated = underTest.update(ID, customer(ID, "new@example.com"), null).block();
+
+        assertThat(updated.getVersion(), equalTo(5L));
+        verify(customerCache).evict(ID);
+        verify(customerCache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void getRemembersMissingCustomer() {
+        when(customerRepository.findById(UUID.fromString(ID))).thenReturn(Mono.empty());
+
+        final Mono<CustomerDTO> get = underTest.get(ID.toUpperCase());
+
+        assertThrows(NotFoundException.class, get::block);
+        verify(missingCache).putAllIfAbsent(Map.of(ID, Boolean.TRUE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReactiveRedisCache cache() {
+        final ReactiveRedisCache cache = mock(ReactiveRedisCache.class);
+        when(cache.get(anyString())).thenReturn(Mono.empty());
+        when(cache.get(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<Mono<?>>) invocation.getArgument(1)).get());
+        when(cache.put(anyString(), any())).thenReturn(Mono.empty());
+        when(cache.evict(anyString())).thenReturn(Mono.empty());
+        when(cache.putAllIfAbsent(anyMap())).thenReturn(Mono.empty());
+        return cache;
+    }
+
+    private Customer stored(final String id, final String email) {
+        final Customer customer = customerMapper.toEntity(customer(null, email));
+        customer.setId(UUID.fromString(id));
+        customer.setVersion(0L);
+        return customer;
+    }
+
+    private static CustomerDTO customer(final String id, final String email) {
+        return CustomerDTO.builder()
+                .id(id)
+                .firstName("first")
+                .lastName("last")
+                .email(email)
+                .dateOfBirth("1990-01-01")
+                .phoneNumber("123")
+                .itinOrSsn("999")
+                .build();
+    }
+}